@@ -12,17 +12,24 @@ import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 import com.gdx.cellular.box2d.ShapeFactory;
+import com.gdx.cellular.elements.ElementPool;
 import com.gdx.cellular.elements.ElementType;
+import com.gdx.cellular.grid.CellSnapshot;
+import com.gdx.cellular.grid.GridBackend;
+import com.gdx.cellular.grid.GridLayout;
 import com.gdx.cellular.input.InputManager;
 import com.gdx.cellular.input.InputProcessors;
+import com.gdx.cellular.ui.DrawMode;
 import com.gdx.cellular.ui.MatrixActor;
-import com.gdx.cellular.util.ElementColumnStepper;
+import com.gdx.cellular.ui.MetricsActor;
+import com.gdx.cellular.util.Chunk;
+import com.gdx.cellular.util.ElementStepExecutor;
 import com.gdx.cellular.util.GameManager;
-
-import java.util.ArrayList;
-import java.util.BitSet;
-import java.util.List;
-
+import com.gdx.cellular.util.PhysicsStepper;
+import com.gdx.cellular.util.SimulationThread;
+import com.gdx.cellular.util.StepAutotuner;
+import com.gdx.cellular.util.StepScheduler;
+import com.gdx.cellular.util.WorldRandom;
 
 public class CellularAutomaton extends ApplicationAdapter {
 	public static int screenWidth = 1280; // 480;
@@ -30,7 +37,20 @@ public class CellularAutomaton extends ApplicationAdapter {
 	public static int pixelSizeModifier = 6;
 	public static int box2dSizeModifier = 10;
     public static Vector3 gravity = new Vector3(0f, -5f, 0f);
-    public static BitSet stepped = new BitSet(1);
+    public static int frameEpoch = 0;
+    // Stepping still reads Element objects, so the other backends only add copies to keep in sync for now.
+    public static GridBackend gridBackend = GridBackend.ELEMENT_ARRAY;
+    public static GridLayout gridLayout = GridLayout.ROW_MAJOR;
+    public static StepScheduler stepScheduler = StepScheduler.CHECKERBOARD;
+    public static boolean overlapPhysics = true;
+    public static DrawMode drawMode = DrawMode.PARALLEL_TEXTURE;
+    // Zoomed out, draw a downsampled copy of the cells matching the zoom.
+    public static boolean levelOfDetail = true;
+    // Steps chunks far outside the camera's view less often and draws only the chunks in it. Never in deterministic mode.
+    public static boolean cullToCamera = true;
+    public static int cullMarginChunks = 2;
+    // 0 suspends chunks outside the margin altogether.
+    public static int outsideViewStepInterval = 4;
 
     private ShapeRenderer shapeRenderer;
     public CellularMatrix matrix;
@@ -38,6 +58,21 @@ public class CellularAutomaton extends ApplicationAdapter {
 
     private int numThreads = 12;
     private boolean useMultiThreading = true;
+    private ElementStepExecutor stepExecutor;
+    private StepAutotuner autotuner;
+    private boolean autotune = true;
+    private MetricsActor metricsActor;
+    private SimulationThread simulation;
+    private PhysicsStepper physicsStepper;
+    private CellSnapshot snapshot;
+    private boolean pipelined = true;
+    // Copied at the tick boundary so that key presses during a running tick do not change it halfway.
+    private int tickThreads;
+    private boolean tickMultiThreading;
+    private StepScheduler tickScheduler;
+    private boolean tickOverlapPhysics;
+    private boolean tickAutotune;
+    private DrawMode tickDrawMode;
 
     private InputManager inputManager;
 
@@ -48,6 +83,7 @@ public class CellularAutomaton extends ApplicationAdapter {
 	public Box2DDebugRenderer debugRenderer;
 	public InputProcessors inputProcessors;
 	public Stage matrixStage;
+	private MatrixActor matrixActor;
 	public GameManager gameManager;
 
 	@Override
@@ -63,18 +99,23 @@ public class CellularAutomaton extends ApplicationAdapter {
 		shapeRenderer.setProjectionMatrix(camera.combined);
 		shapeRenderer.setAutoShapeType(true);
 
-        stepped.set(0, true);
-
 		Viewport viewport = new FitViewport(Gdx.graphics.getWidth(), Gdx.graphics.getHeight(), camera);
 		inputManager = new InputManager(camera, viewport, shapeRenderer);
 
 		b2dWorld = new World(new Vector2(0, -100), true);
+		physicsStepper = new PhysicsStepper(b2dWorld);
 
-		matrix = new CellularMatrix(screenWidth, screenHeight, pixelSizeModifier, b2dWorld);
+		matrix = new CellularMatrix(screenWidth, screenHeight, pixelSizeModifier, b2dWorld, gridBackend, gridLayout);
 		matrix.generateShuffledIndexesForThreads(numThreads);
+		stepExecutor = new ElementStepExecutor(matrix, numThreads);
+		autotuner = new StepAutotuner(numThreads, Runtime.getRuntime().availableProcessors());
+		snapshot = new CellSnapshot(matrix.innerArraySize, matrix.outerArraySize, Chunk.size);
+		simulation = new SimulationThread(this::tick);
 
 		matrixStage = new Stage(viewport);
-		matrixStage.addActor(new MatrixActor(shapeRenderer, matrix));
+		matrixActor = new MatrixActor(shapeRenderer, matrix);
+		matrixActor.stepExecutor = stepExecutor;
+		matrixStage.addActor(matrixActor);
 
 		ShapeFactory.initialize(b2dWorld);
 		debugRenderer = new Box2DDebugRenderer();
@@ -83,7 +124,10 @@ public class CellularAutomaton extends ApplicationAdapter {
 
 		this.gameManager = new GameManager(this);
 		gameManager.createPlayer(matrix.innerArraySize/2, matrix.outerArraySize/2);
-		inputProcessors = new InputProcessors(inputManager, matrix, camera, gameManager);
+		inputProcessors = new InputProcessors(inputManager, matrix, camera, gameManager, simulation);
+
+		metricsActor = new MetricsActor(autotuner, 0, screenHeight - 65);
+		inputManager.modeStage.addActor(metricsActor);
 	}
 
 	@Override
@@ -92,20 +136,76 @@ public class CellularAutomaton extends ApplicationAdapter {
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
         fpsLogger.log();
-        stepped.flip(0);
+
+        // Detect and act on input
+        autotune = inputManager.toggleAutotune(autotune);
+        // Picking a thread count by hand turns the autotuner off.
+        int requestedThreads = inputManager.adjustThreadCount(numThreads);
+        if (requestedThreads != numThreads) {
+            numThreads = requestedThreads;
+            autotune = false;
+        }
+        metricsActor.enabled = autotune;
+        useMultiThreading = inputManager.toggleThreads(useMultiThreading);
+        useChunks = inputManager.toggleChunks(useChunks);
+        stepScheduler = inputManager.toggleStepScheduler(stepScheduler);
+        pipelined = inputManager.togglePipelining(pipelined);
+        drawMode = inputManager.toggleDrawMode(drawMode);
+        inputManager.pollTickKeys();
+
+        if (!pipelined) {
+			simulation.awaitTick();
+		}
+		if (!simulation.isBusy() && beginTick()) {
+			if (pipelined) {
+				simulation.startTick();
+			} else {
+				tick();
+			}
+		}
+
+		// While a tick is running the grid is being stepped, so draw the last published snapshot.
+		// The Box2D overlays read the world the tick is stepping and are only drawn between ticks.
+		boolean ticking = simulation.isBusy();
+		matrixActor.snapshot = ticking ? snapshot : null;
+		matrixStage.draw();
+		if (!ticking) {
+			// The camera can be zoomed and panned, so follow it.
+			shapeRenderer.setProjectionMatrix(camera.combined);
+			matrix.drawPhysicsElementActors(shapeRenderer);
+			Array<Body> bodies = new Array<>();
+			b2dWorld.getBodies(bodies);
+			matrix.drawBox2d(shapeRenderer, bodies);
+			debugRenderer.render(b2dWorld, camera.combined);
+		}
+
+		inputManager.drawMenu();
+		inputManager.drawCursor();
+	}
+
+	/**
+	 * Everything done at the tick boundary on the render thread: queued input, save/load and
+	 * spouts. Returns false when paused, in which case no tick runs.
+	 */
+	private boolean beginTick() {
+        frameEpoch++;
         incrementFrameCount();
+		WorldRandom.beginStream(frameEpoch, WorldRandom.BOUNDARY_STREAM);
 
+		simulation.runQueuedInput();
         if (useChunks) {
 			matrix.resetChunks();
 		}
+		matrix.applyWakeups();
+		updateView();
+		matrix.updateActiveChunks();
 
-        // Detect and act on input
-        numThreads = inputManager.adjustThreadCount(numThreads);
-        useMultiThreading = inputManager.toggleThreads(useMultiThreading);
-        useChunks = inputManager.toggleChunks(useChunks);
 		inputManager.save(matrix);
 		inputManager.load(matrix);
 
+		if (autotune) {
+			numThreads = autotuner.getThreadCount();
+		}
 		matrix.reshuffleXIndexes();
 		matrix.reshuffleThreadXIndexes(numThreads);
 		matrix.calculateAndSetThreadedXIndexOffset();
@@ -114,58 +214,60 @@ public class CellularAutomaton extends ApplicationAdapter {
 		if (isPaused) {
 			matrix.useChunks = false;
 			useChunks = false;
-			matrixStage.draw();
-			matrix.drawPhysicsElementActors(shapeRenderer);
-			Array<Body> bodies = new Array<>();
-			b2dWorld.getBodies(bodies);
-			matrix.drawBox2d(shapeRenderer, bodies);
-			debugRenderer.render(b2dWorld, camera.combined);
-			return;
+			return false;
 		}
 
 		matrix.spawnFromSpouts();
 		matrix.useChunks = useChunks;
+		tickThreads = numThreads;
+		// Only the checkerboard passes step in the same order at every thread count.
+		tickMultiThreading = useMultiThreading || WorldRandom.deterministic;
+		tickScheduler = WorldRandom.deterministic ? StepScheduler.CHECKERBOARD : stepScheduler;
+		tickOverlapPhysics = overlapPhysics;
+		tickAutotune = autotune;
+		tickDrawMode = drawMode;
+		return true;
+	}
 
-		if (!useMultiThreading) {
-			matrix.stepAndDrawAll(shapeRenderer);
+	private void tick() {
+		physicsStepper.begin(tickOverlapPhysics);
+		if (!tickMultiThreading) {
+			matrix.stepAll();
 		} else {
-			matrix.reshuffleThreadXIndexes(numThreads);
-			List<Thread> threads = new ArrayList<>(numThreads);
-
-			for (int t = 0; t < numThreads; t++) {
-				Thread newThread = new Thread(new ElementColumnStepper(matrix, t));
-				threads.add(newThread);
+			stepExecutor.setThreadCount(tickThreads);
+			stepExecutor.setGrain(tickAutotune ? autotuner.getGrain() : 1);
+			stepExecutor.step(tickScheduler, frameEpoch);
+			if (tickAutotune) {
+				autotuner.record(stepExecutor, tickScheduler);
 			}
-			if (stepped.get(0)) {
-				startAndWaitOnOddThreads(threads);
-				startAndWaitOnEvenThreads(threads);
-			} else {
-				startAndWaitOnEvenThreads(threads);
-				startAndWaitOnOddThreads(threads);
-			}
-//			matrix.drawAll(shapeRenderer);
-
 		}
+		WorldRandom.beginStream(frameEpoch, WorldRandom.TICK_STREAM);
 
 		matrix.executeExplosions();
 
-		b2dWorld.step(1/120f, 10, 6);
-		b2dWorld.step(1/120f, 10, 6);
+		physicsStepper.finish();
 		matrix.stepPhysicsElementActors();
 
-		matrixStage.draw();
-		matrix.drawPhysicsElementActors(shapeRenderer);
-
-		Array<Body> bodies = new Array<>();
-		b2dWorld.getBodies(bodies);
-		matrix.drawBox2d(shapeRenderer, bodies);
-		debugRenderer.render(b2dWorld, camera.combined);
-
-		inputManager.drawMenu();
-		inputManager.drawCursor();
-
 		inputManager.weatherSystem.enact(this.matrix);
 		gameManager.stepPlayers(this.matrix);
+		ElementPool.recycleAll(this.matrix);
+		// The snapshot is the color resolve for the drawing thread, so in parallel mode the workers take it while still warm.
+		if (tickDrawMode == DrawMode.PARALLEL_TEXTURE) {
+			matrix.captureSnapshot(snapshot, frameEpoch, stepExecutor);
+		} else {
+			matrix.captureSnapshot(snapshot, frameEpoch);
+		}
+	}
+
+	private void updateView() {
+		// Which chunks are culled depends on where the camera is, which is not part of the world's state.
+		matrix.cullToView = cullToCamera && !WorldRandom.deterministic;
+		matrix.viewMarginChunks = cullMarginChunks;
+		matrix.outsideViewStepInterval = outsideViewStepInterval;
+		float halfWidth = camera.viewportWidth * camera.zoom / 2;
+		float halfHeight = camera.viewportHeight * camera.zoom / 2;
+		matrix.setView(matrix.toMatrix(camera.position.x - halfWidth), matrix.toMatrix(camera.position.y - halfHeight),
+				matrix.toMatrix(camera.position.x + halfWidth), matrix.toMatrix(camera.position.y + halfHeight));
 	}
 
 	@Override
@@ -188,43 +290,14 @@ public class CellularAutomaton extends ApplicationAdapter {
 				BodyDef.BodyType.StaticBody);
 	}
 
-	private void startAndWaitOnEvenThreads(List<Thread> threads) {
-		try {
-			for (int t = 0; t < threads.size(); t++) {
-				if (t % 2 == 0) {
-					threads.get(t).start();
-				}
-			}
-			for (int t = 0; t < threads.size(); t++) {
-				if (t % 2 == 0) {
-					threads.get(t).join();
-				}
-			}
-		} catch (InterruptedException e) {
-			e.printStackTrace();
-		}
-	}
-
-	private void startAndWaitOnOddThreads(List<Thread> threads) {
-		try {
-			for (int t = 0; t < threads.size(); t++) {
-				if (t % 2 != 0) {
-					threads.get(t).start();
-				}
-			}
-			for (int t = 0; t < threads.size(); t++) {
-				if (t % 2 == 0) {
-					threads.get(t).join();
-				}
-			}
-		} catch (InterruptedException e) {
-			e.printStackTrace();
-		}
-	}
-
     @Override
 	public void dispose () {
 		shapeRenderer.dispose();
+		matrixActor.dispose();
+		simulation.shutdown();
+		physicsStepper.shutdown();
+		stepExecutor.shutdown();
+		matrix.flushGrid();
 	}
 
 }
@@ -17,15 +17,28 @@ import com.gdx.cellular.elements.EmptyCell;
 import com.gdx.cellular.elements.liquid.Liquid;
 import com.gdx.cellular.elements.player.PlayerMeat;
 import com.gdx.cellular.elements.solid.movable.MovableSolid;
+import com.gdx.cellular.grid.CellFlags;
+import com.gdx.cellular.grid.CellGrid;
+import com.gdx.cellular.grid.CellRasterizer;
+import com.gdx.cellular.grid.CellSnapshot;
+import com.gdx.cellular.grid.ChunkActivity;
+import com.gdx.cellular.grid.DirectBufferGrid;
+import com.gdx.cellular.grid.GridBackend;
+import com.gdx.cellular.grid.GridLayout;
+import com.gdx.cellular.grid.GridRow;
+import com.gdx.cellular.grid.SleepMap;
 import com.gdx.cellular.input.InputManager;
 import com.gdx.cellular.particles.Explosion;
 import com.gdx.cellular.spouts.ElementSpout;
 import com.gdx.cellular.spouts.ParticleSpout;
 import com.gdx.cellular.spouts.Spout;
 import com.gdx.cellular.util.Chunk;
+import com.gdx.cellular.util.ElementStepExecutor;
+import com.gdx.cellular.util.MoveIntents;
+import com.gdx.cellular.util.PackedColor;
+import com.gdx.cellular.util.WorldRandom;
 
 import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -36,14 +49,57 @@ public class CellularMatrix {
     public int outerArraySize;
     public int pixelSizeModifier;
     private final List<Integer> shuffledXIndexes;
+    private final List<Integer> shuffledChunkXOffsets;
     public boolean useChunks = true;
+    public boolean useSleeping = true;
     public int drawThreadCount = 6;
     private List<List<Integer>> shuffledXIndexesForThreads;
     private List<List<Integer>> shuffledYIndexesForThreads;
+    // First unshifted column of every column stripe, plus innerArraySize at the end.
+    private int[] stripeStarts;
     private int threadedIndexOffset = 0;
 
-    private Array<Array<Element>> matrix;
+    private final GridBackend gridBackend;
+    private final GridLayout gridLayout;
+    private CellGrid matrix;
+    private final SleepMap sleepMap;
+    private final Color drawColor = new Color();
+    private final ChunkActivity chunkActivity;
+    // Chunks with a cell write since the last stampRenderTiles, and the render version each was last written in.
+    private final boolean[] renderDirty;
+    private final int[] tileStamps;
+    private final int tileColumns;
+    private int renderVersion;
     private final Array<Array<Chunk>> chunks;
+    private final List<List<Chunk>> activeChunksByPass = new ArrayList<>();
+    private final boolean[] activeChunkRows;
+    // Cells of every chunk that can step this frame, packed chunk-local like ChunkActivity's
+    // rectangles, and the rows of every chunk row those cover. Set by updateActiveChunks.
+    private final int[] stepBounds;
+    private final int[] activeRowMinY;
+    private final int[] activeRowMaxY;
+    // Elements of each chunk, by id, too fast to step alongside the other chunks of a checkerboard pass.
+    private final Array<Array<Element>> farMovers = new Array<>();
+    private int activeChunkCount;
+    // Camera culling. Chunks more than viewMarginChunks chunks outside the view only step every
+    // outsideViewStepInterval frames, or not at all when it is 0.
+    public boolean cullToView = false;
+    public int viewMarginChunks = 2;
+    public int outsideViewStepInterval = 4;
+    private int viewMinX;
+    private int viewMinY;
+    private int viewMaxX;
+    private int viewMaxY;
+    // Set while the INTENTS scheduler's workers propose moves. Grid writes are then buffered per thread.
+    private boolean proposingMoves = false;
+    private final List<MoveIntents> allMoveIntents = new ArrayList<>();
+    private final ThreadLocal<MoveIntents> moveIntents = ThreadLocal.withInitial(this::registerMoveIntents);
+    private final long[] claimedCells;
+    private final int[] chunkIntentBuffer;
+    private final int[] chunkFirstIntent;
+    private final int[] chunkIntentCount;
+    private int lastAppliedMoves;
+    private int lastRetriedMoves;
     public Array<Spout> spoutArray;
     public Array<PhysicsElementActor> physicsElementActors = new Array<>();
     public World world;
@@ -51,13 +107,50 @@ public class CellularMatrix {
     public Array<Boid> boids = new Array<>();
 
     public CellularMatrix(int width, int height, int pixelSizeModifier, World world) {
+        this(width, height, pixelSizeModifier, world, CellularAutomaton.gridBackend, CellularAutomaton.gridLayout);
+    }
+
+    public CellularMatrix(int width, int height, int pixelSizeModifier, World world, GridBackend gridBackend, GridLayout gridLayout) {
         this.pixelSizeModifier = pixelSizeModifier;
+        this.gridBackend = gridBackend;
+        this.gridLayout = gridLayout;
         this.innerArraySize = toMatrix(width);
         this.outerArraySize = toMatrix(height);
-        this.matrix = generateMatrix();
+        this.matrix = gridBackend.openGrid(innerArraySize, outerArraySize, gridLayout);
+        this.sleepMap = new SleepMap(innerArraySize, outerArraySize);
         this.world = world;
+        this.chunkActivity = new ChunkActivity(chunkRowCount() * chunkColumnCount());
+        this.tileColumns = chunkColumnCount();
+        this.renderDirty = new boolean[chunkRowCount() * tileColumns];
+        this.tileStamps = new int[renderDirty.length];
+        Arrays.fill(renderDirty, true);
         this.chunks = generateChunks();
+        this.activeChunkRows = new boolean[chunks.size];
+        this.stepBounds = new int[chunkRowCount() * chunkColumnCount()];
+        this.activeRowMinY = new int[chunks.size];
+        this.activeRowMaxY = new int[chunks.size];
+        this.claimedCells = new long[(innerArraySize * outerArraySize + 63) >>> 6];
+        this.chunkIntentBuffer = new int[chunkRowCount() * chunkColumnCount()];
+        this.chunkFirstIntent = new int[chunkIntentBuffer.length];
+        this.chunkIntentCount = new int[chunkIntentBuffer.length];
+        Arrays.fill(activeChunkRows, true);
+        for (int r = 0; r < chunks.size; r++) {
+            activeRowMinY[r] = r * Chunk.size;
+            activeRowMaxY[r] = Math.min((r + 1) * Chunk.size, outerArraySize) - 1;
+            for (Chunk chunk : chunks.get(r)) {
+                stepBounds[chunk.getId()] = ChunkActivity.pack(0, 0, chunk.getMaxX() - chunk.getMinX(), chunk.getMaxY() - chunk.getMinY());
+            }
+        }
+        for (int pass = 0; pass < 4; pass++) {
+            activeChunksByPass.add(new ArrayList<>());
+        }
+        for (int i = 0; i < stepBounds.length; i++) {
+            farMovers.add(new Array<>(false, 16));
+        }
+        this.viewMaxX = innerArraySize - 1;
+        this.viewMaxY = outerArraySize - 1;
         this.shuffledXIndexes = generateShuffledIndexes(innerArraySize);
+        this.shuffledChunkXOffsets = generateShuffledIndexes(Chunk.size);
 
         calculateAndSetThreadedXIndexOffset();
         spoutArray = new Array<>();
@@ -65,40 +158,52 @@ public class CellularMatrix {
 
     private Array<Array<Chunk>> generateChunks() {
         Array<Array<Chunk>> chunks = new Array<>();
-        int rows = (int) Math.ceil((double) outerArraySize / Chunk.size);
-        int columns = (int) Math.ceil((double) innerArraySize / Chunk.size);
+        int rows = chunkRowCount();
+        int columns = chunkColumnCount();
         for (int r = 0; r < rows; r++) {
             chunks.add(new Array<>());
             for (int c = 0; c < columns; c++) {
                 int xPos = c * Chunk.size;
                 int yPos = r * Chunk.size;
-                Chunk newChunk = new Chunk();
+                Chunk newChunk = new Chunk(r * columns + c, chunkActivity);
                 chunks.get(r).add(newChunk);
                 newChunk.setTopLeft(new Vector3(Math.min(xPos, innerArraySize), Math.min(yPos, outerArraySize), 0));
                 newChunk.setBottomRight(new Vector3(Math.min(xPos + Chunk.size, innerArraySize), Math.min(yPos + Chunk.size, outerArraySize), 0));
+                newChunk.setShouldStep(true);
+                newChunk.setShouldStepNextFrame(true);
             }
         }
         return chunks;
     }
 
+    private int chunkRowCount() {
+        return (int) Math.ceil((double) outerArraySize / Chunk.size);
+    }
+
+    private int chunkColumnCount() {
+        return (int) Math.ceil((double) innerArraySize / Chunk.size);
+    }
+
     public void calculateAndSetThreadedXIndexOffset() {
         if (shuffledXIndexesForThreads != null) {
-            threadedIndexOffset = (int) (Math.random() * (innerArraySize / shuffledXIndexesForThreads.size()));
+            threadedIndexOffset = WorldRandom.nextInt(Math.max(innerArraySize / shuffledXIndexesForThreads.size(), 1));
         } else {
             threadedIndexOffset = 0;
         }
     }
 
-    private Array<Array<Element>> generateMatrix() {
-        Array<Array<Element>> outerArray = new Array<>(true, outerArraySize);
-        for (int y = 0; y < outerArraySize; y++) {
-            Array<Element> innerArr = new Array<>(true, innerArraySize);
-            for (int x = 0; x < innerArraySize; x++) {
-                innerArr.add(ElementType.EMPTYCELL.createElementByMatrix(x, y));
-            }
-            outerArray.add(innerArr);
+    private CellGrid generateMatrix() {
+        return gridBackend.createGrid(innerArraySize, outerArraySize, gridLayout);
+    }
+
+    public GridBackend getGridBackend() {
+        return gridBackend;
+    }
+
+    public void flushGrid() {
+        if (matrix instanceof DirectBufferGrid) {
+            ((DirectBufferGrid) matrix).flush();
         }
-        return outerArray;
     }
 
     public void stepAndDrawAll(ShapeRenderer sr) {
@@ -106,16 +211,8 @@ public class CellularMatrix {
         drawAll(sr);
     }
 
-    private void stepAll() {
-        for (int y = 0; y < outerArraySize; y++) {
-            Array<Element> row = getRow(y);
-            for (int x : getShuffledXIndexes()) {
-                Element element = row.get(x);
-                if (element != null) {
-                    element.step(this);
-                }
-            }
-        }
+    public void stepAll() {
+        stepProvidedRows(0, outerArraySize - 1);
     }
 
     public void drawAll(ShapeRenderer sr) {
@@ -126,41 +223,74 @@ public class CellularMatrix {
     private void drawElements(ShapeRenderer sr) {
         sr.begin();
         sr.set(ShapeRenderer.ShapeType.Filled);
-        for (int y = 0; y < outerArraySize; y++) {
-            Array<Element> row = getRow(y);
-            for (int x = 0; x < row.size; x++) {
-                Element element = row.get(x);
-                if (element.owningBody != null) {
-                    continue;
-                }
-                Color currentColor = element.color;
-                int toIndex = x;
-                for (int following = x; following < row.size; following++) {
-                    Element followingElement = row.get(following);
-                    if (!followingElement.color.equals(currentColor)) {
-                        break;
-                    }
-                    toIndex = following;
-                }
+        drawRows(cullToView ? viewMinY : 0, cullToView ? viewMaxY + 1 : outerArraySize, sr);
+        sr.end();
+    }
 
-                sr.setColor(element.color);
-                sr.rect(element.toPixel(x), element.toPixel(y), rectDrawWidth(toIndex), pixelSizeModifier);
-                x = toIndex;
+    public void rasterize(CellRasterizer rasterizer) {
+        rasterizer.rasterize(matrix);
+    }
+
+    public void captureSnapshot(CellSnapshot snapshot, int tick) {
+        snapshot.capture(matrix, tick, tileStamps, stampRenderTiles());
+    }
 
+    /**
+     * Like captureSnapshot, with the stale tiles copied by the executor's workers.
+     */
+    public void captureSnapshot(CellSnapshot snapshot, int tick, ElementStepExecutor executor) {
+        int version = stampRenderTiles();
+        CellGrid grid = matrix;
+        executor.forEachTileRange(tileStamps.length, (from, to) -> snapshot.captureTiles(grid, tileStamps, from, to));
+        snapshot.publish(tick, version);
+    }
+
+    public void rasterize(CellRasterizer rasterizer, ElementStepExecutor executor) {
+        CellGrid grid = matrix;
+        executor.forEachTileRange(rasterizer.getTileCount(), (from, to) -> rasterizer.rasterizeTiles(grid, from, to));
+    }
+
+    private void markRenderDirty(int x, int y) {
+        renderDirty[(y / Chunk.size) * tileColumns + x / Chunk.size] = true;
+    }
+
+    /**
+     * Stamps every chunk written since the last call with a new render version and returns
+     * the current version. Must not run while anything is stepping.
+     */
+    public int stampRenderTiles() {
+        boolean stamped = false;
+        for (int tile = 0; tile < renderDirty.length; tile++) {
+            if (renderDirty[tile]) {
+                if (!stamped) {
+                    renderVersion++;
+                    stamped = true;
+                }
+                tileStamps[tile] = renderVersion;
+                renderDirty[tile] = false;
             }
         }
-        sr.end();
+        return renderVersion;
+    }
+
+    /**
+     * Render version each chunk was last written in, indexed by chunk id.
+     */
+    public int[] getTileStamps() {
+        return tileStamps;
     }
 
     private void drawChunks(ShapeRenderer sr) {
         sr.begin(ShapeRenderer.ShapeType.Line);
-        sr.setColor(ColorConstants.getColorForElementType(ElementType.LAVA));
+        sr.setColor(PackedColor.toColor(drawColor, ColorConstants.getColorForElementType(ElementType.LAVA)));
         for (int y = 0; y < chunks.size; y++) {
             Array<Chunk> chunkRow = chunks.get(y);
             for (int x = 0; x < chunkRow.size; x++) {
                 Chunk chunk = chunkRow.get(x);
                 if (chunk.getShouldStep()) {
-                    sr.rect(chunk.getTopLeft().x * pixelSizeModifier, chunk.getTopLeft().y * pixelSizeModifier, Chunk.size * pixelSizeModifier, Chunk.size * pixelSizeModifier);
+                    int width = chunk.getDirtyMaxX() - chunk.getDirtyMinX() + 1;
+                    int height = chunk.getDirtyMaxY() - chunk.getDirtyMinY() + 1;
+                    sr.rect(chunk.getDirtyMinX() * pixelSizeModifier, chunk.getDirtyMinY() * pixelSizeModifier, width * pixelSizeModifier, height * pixelSizeModifier);
                 }
             }
         }
@@ -214,31 +344,211 @@ public class CellularMatrix {
         sr.end();
     }
 
+    private void drawRows(int minRow, int maxRow, ShapeRenderer sr) {
+        for (int y = minRow; y < maxRow; y++) {
+            for (int x = 0; x < innerArraySize; x++) {
+                if ((matrix.getFlags(x, y) & CellFlags.OWNED_BY_BODY) != 0) {
+                    continue;
+                }
+                int currentColor = matrix.getColor(x, y);
+                int toIndex = x;
+                for (int following = x; following < innerArraySize; following++) {
+                    if (matrix.getColor(following, y) != currentColor) {
+                        break;
+                    }
+                    toIndex = following;
+                }
+
+                sr.setColor(PackedColor.toColor(drawColor, currentColor));
+                sr.rect(x * pixelSizeModifier, y * pixelSizeModifier, rectDrawWidth(toIndex), pixelSizeModifier);
+                x = toIndex;
+
+            }
+        }
+    }
+
+    /**
+     * Draws the cells of the tiles that are dirty in tiles, from the live grid, or from snapshot
+     * colors when colors is not null. For a ShapeRenderer drawing into a buffer that keeps the
+     * other tiles from earlier frames, so cells owned by physics bodies, which those draw
+     * themselves, are drawn transparent rather than skipped. Blending must be off.
+     */
+    public void drawTiles(ShapeRenderer sr, CellRasterizer tiles, int[] colors) {
+        sr.begin();
+        sr.set(ShapeRenderer.ShapeType.Filled);
+        int tileSize = tiles.getTileSize();
+        for (int tileRow = 0; tileRow < tiles.getTileRows(); tileRow++) {
+            for (int tileColumn = 0; tileColumn < tiles.getTileColumns(); tileColumn++) {
+                if (!tiles.isTileDirty(tileColumn, tileRow)) {
+                    continue;
+                }
+                int minX = tileColumn * tileSize;
+                int maxX = Math.min(minX + tileSize, innerArraySize) - 1;
+                for (int y = tileRow * tileSize; y <= Math.min((tileRow + 1) * tileSize, outerArraySize) - 1; y++) {
+                    for (int x = minX; x <= maxX; x++) {
+                        int currentColor = tileColor(colors, x, y);
+                        int toIndex = x;
+                        while (toIndex < maxX && tileColor(colors, toIndex + 1, y) == currentColor) {
+                            toIndex++;
+                        }
+                        sr.setColor(PackedColor.toColor(drawColor, currentColor));
+                        sr.rect(x * pixelSizeModifier, y * pixelSizeModifier, (toIndex - x + 1) * pixelSizeModifier, pixelSizeModifier);
+                        x = toIndex;
+                    }
+                }
+            }
+        }
+        sr.end();
+    }
+
+    private int tileColor(int[] colors, int x, int y) {
+        if (colors != null) {
+            return colors[y * innerArraySize + x];
+        }
+        return (matrix.getFlags(x, y) & CellFlags.OWNED_BY_BODY) != 0 ? 0 : matrix.getColor(x, y);
+    }
+
     private float rectDrawWidth(int index) {
         return (index * pixelSizeModifier) + (pixelSizeModifier);
     }
 
     public void stepProvidedRows(int minRow, int maxRow) {
         for (int y = minRow; y <= maxRow; y++) {
-            Array<Element> row = getRow(y);
+            if (!isRowInStepBounds(y)) {
+                continue;
+            }
+            GridRow row = getRow(y);
+            Array<Chunk> chunkRow = chunks.get(y / Chunk.size);
             for (int x : getShuffledXIndexes()) {
-                Element element = row.get(x);
-                if (element != null) {
-                    element.step(this);
+                if (isInStepBounds(chunkRow.get(x / Chunk.size), x, y)) {
+                    stepCell(row, x, y);
                 }
             }
         }
     }
 
-    public void stepProvidedColumns(int colIndex) {
+    private boolean isRowInStepBounds(int y) {
+        int r = y / Chunk.size;
+        return activeChunkRows[r] && y >= activeRowMinY[r] && y <= activeRowMaxY[r];
+    }
+
+    private boolean isInStepBounds(Chunk chunk, int x, int y) {
+        int bounds = stepBounds[chunk.getId()];
+        int localX = x - chunk.getMinX();
+        int localY = y - chunk.getMinY();
+        return localX >= ChunkActivity.minX(bounds) && localX <= ChunkActivity.maxX(bounds)
+                && localY >= ChunkActivity.minY(bounds) && localY <= ChunkActivity.maxY(bounds);
+    }
+
+    /**
+     * Steps the cells of one chunk that can step this frame, bottom row first. Used by the
+     * checkerboard scheduler, for which an element whose step could reach past the half of a
+     * neighbouring chunk next to its own is not stepped but queued, to be stepped by
+     * stepFarMovers once all four passes are done. Chunks of one pass are a chunk apart, so
+     * within that half no other task of the pass writes.
+     */
+    public void stepChunk(Chunk chunk) {
+        WorldRandom.beginStream(CellularAutomaton.frameEpoch, chunk.getMinY() * (long) innerArraySize + chunk.getMinX());
+        if (proposingMoves) {
+            moveIntents.get().startChunk(chunk.getId());
+        }
+        int bounds = stepBounds[chunk.getId()];
+        if (ChunkActivity.isEmpty(bounds)) {
+            return;
+        }
+        int minX = chunk.getMinX() + ChunkActivity.minX(bounds);
+        int maxX = chunk.getMinX() + ChunkActivity.maxX(bounds);
+        for (int y = chunk.getMinY() + ChunkActivity.minY(bounds); y <= chunk.getMinY() + ChunkActivity.maxY(bounds); y++) {
+            GridRow row = getRow(y);
+            for (int offset : shuffledChunkXOffsets) {
+                int x = chunk.getMinX() + offset;
+                if (x < minX || x > maxX) {
+                    continue;
+                }
+                if (!proposingMoves) {
+                    Element element = row.get(x);
+                    if (element != null && !isWithinHalfChunk(element, chunk, x, y)
+                            && !(useSleeping && sleepMap.isSleeping(x, y))) {
+                        farMovers.get(chunk.getId()).add(element);
+                        continue;
+                    }
+                }
+                try {
+                    stepCell(row, x, y);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private boolean isWithinHalfChunk(Element element, Chunk chunk, int x, int y) {
+        int reach = element.getStepReach();
+        int verticalReach = element.getVerticalStepReach();
+        int margin = Chunk.size / 2;
+        return x - reach >= chunk.getMinX() - margin && x + reach <= chunk.getMaxX() + margin
+                && y - verticalReach >= chunk.getMinY() - margin && y + verticalReach <= chunk.getMaxY() + margin;
+    }
+
+    /**
+     * Steps the elements the checkerboard passes queued, one at a time, chunk by chunk in the
+     * order the passes starting at firstPass stepped them.
+     */
+    public void stepFarMovers(int firstPass) {
+        WorldRandom.beginStream(CellularAutomaton.frameEpoch, WorldRandom.FAR_MOVER_STREAM);
+        for (int i = 0; i < 4; i++) {
+            for (Chunk chunk : activeChunksByPass.get((firstPass + i) % 4)) {
+                Array<Element> chunkFarMovers = farMovers.get(chunk.getId());
+                if (chunkFarMovers.size > 0) {
+                    stepHaloElements(chunkFarMovers);
+                }
+            }
+        }
+    }
+
+    /**
+     * Active chunks of one checkerboard pass (0-3): those whose column and row parity match the pass.
+     * No two chunks of a pass share an edge or a corner.
+     */
+    public List<Chunk> getActiveChunksForPass(int pass) {
+        return activeChunksByPass.get(pass);
+    }
+
+    public int getActiveChunkCount() {
+        return activeChunkCount;
+    }
+
+    /**
+     * Steps one column stripe. An element whose step could reach past the edge of the stripe,
+     * into a stripe another thread is stepping, is not stepped but added to haloElements,
+     * to be stepped by stepHaloElements once every stripe is done.
+     */
+    public void stepProvidedColumns(int colIndex, Array<Element> haloElements) {
+        int stripeStart = stripeStarts[colIndex];
+        int stripeEnd = stripeStarts[colIndex + 1];
+        boolean soleStripe = shuffledXIndexesForThreads.size() == 1;
         for (int y = 0; y < outerArraySize; y++) {
-            Array<Element> row = getRow(y);
+            if (!isRowInStepBounds(y)) {
+                continue;
+            }
+            GridRow row = getRow(y);
+            Array<Chunk> chunkRow = chunks.get(y / Chunk.size);
             for (int x : shuffledXIndexesForThreads.get(colIndex)) {
-                try {
-                    Element element = row.get(calculateIndexWithOffset(x));
-                    if (element != null) {
-                        element.step(this);
+                int matrixX = calculateIndexWithOffset(x);
+                if (!isInStepBounds(chunkRow.get(matrixX / Chunk.size), matrixX, y)) {
+                    continue;
+                }
+                if (!soleStripe) {
+                    Element element = row.get(matrixX);
+                    int edgeDistance = Math.min(x - stripeStart, stripeEnd - 1 - x);
+                    if (element != null && element.getStepReach() > edgeDistance
+                            && !(useSleeping && sleepMap.isSleeping(matrixX, y))) {
+                        haloElements.add(element);
+                        continue;
                     }
+                }
+                try {
+                    stepCell(row, matrixX, y);
                 } catch (Exception e) {
                     e.printStackTrace();
                 }
@@ -246,32 +556,235 @@ public class CellularMatrix {
         }
     }
 
-    public void drawProvidedRows(int minRow, int maxRow, ShapeRenderer sr) {
-        sr.begin();
-        sr.set(ShapeRenderer.ShapeType.Filled);
-        for (int y = minRow; y < maxRow; y++) {
-            Array<Element> row = getRow(y);
-            for (int x = 0; x < row.size; x++) {
-                Element element = row.get(x);
-                if (element.owningBody != null) {
+    /**
+     * Steps the elements the column stripes left for after their pass, one at a time.
+     * An element that was swapped away meanwhile is stepped where it is now.
+     */
+    public void stepHaloElements(Array<Element> haloElements) {
+        for (int i = 0; i < haloElements.size; i++) {
+            Element element = haloElements.get(i);
+            int x = element.getMatrixX();
+            int y = element.getMatrixY();
+            if (!isWithinBounds(x, y)) {
+                continue;
+            }
+            GridRow row = getRow(y);
+            if (row.get(x) != element) {
+                continue;
+            }
+            try {
+                stepCell(row, x, y);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        haloElements.clear();
+    }
+
+    private void stepCell(GridRow row, int x, int y) {
+        if (useSleeping && sleepMap.isSleeping(x, y)) {
+            return;
+        }
+        Element element = row.get(x);
+        if (element != null) {
+            MoveIntents intents = proposingMoves ? moveIntents.get() : null;
+            if (intents != null) {
+                intents.begin(element, x, y);
+            }
+            element.step(this);
+            // An element with a pending move has not come to rest, whatever its step concluded.
+            boolean proposed = intents != null && intents.end();
+            syncElement(element);
+            if (useSleeping && !proposed && element.canSleep() && row.get(x) == element) {
+                sleepMap.sleep(x, y);
+            }
+        }
+    }
+
+    private MoveIntents registerMoveIntents() {
+        MoveIntents intents = new MoveIntents();
+        synchronized (allMoveIntents) {
+            allMoveIntents.add(intents);
+        }
+        return intents;
+    }
+
+    /**
+     * Starts the propose phase of the INTENTS scheduler. Until resolveMoves, every grid write made
+     * by a stepping element is buffered as part of that element's intent instead of applied.
+     */
+    public void beginProposingMoves() {
+        proposingMoves = true;
+    }
+
+    /**
+     * Ends the propose phase and applies the intents chunk by chunk, in step order within a chunk.
+     * The chunk order flips every frame so neither side of a chunk border always wins.
+     * An intent applies only if none of the cells it writes was written by an earlier intent;
+     * since every move writes the cells it swaps with, that also covers what the move read.
+     * Losers keep their cell and are woken so they try again next frame. Must not run while any
+     * stepper is active.
+     */
+    public void resolveMoves(int frame) {
+        proposingMoves = false;
+        Arrays.fill(claimedCells, 0);
+        Arrays.fill(chunkIntentCount, 0);
+        lastAppliedMoves = 0;
+        lastRetriedMoves = 0;
+        synchronized (allMoveIntents) {
+            for (int b = 0; b < allMoveIntents.size(); b++) {
+                MoveIntents intents = allMoveIntents.get(b);
+                // A chunk is stepped by one thread from start to end, so its intents are contiguous.
+                for (int i = 0; i < intents.size(); i++) {
+                    int chunkId = (int) (intents.getKey(i) >>> 32);
+                    if (chunkIntentCount[chunkId]++ == 0) {
+                        chunkIntentBuffer[chunkId] = b;
+                        chunkFirstIntent[chunkId] = i;
+                    }
+                }
+            }
+            boolean ascending = frame % 2 == 0;
+            for (int n = 0; n < chunkIntentCount.length; n++) {
+                int chunkId = ascending ? n : chunkIntentCount.length - 1 - n;
+                if (chunkIntentCount[chunkId] == 0) {
                     continue;
                 }
-                Color currentColor = element.color;
-                int toIndex = x;
-                for (int following = x; following < row.size; following++) {
-                    Element followingElement = row.get(following);
-                    if (!followingElement.color.equals(currentColor)) {
-                        break;
-                    }
-                    toIndex = following;
+                MoveIntents intents = allMoveIntents.get(chunkIntentBuffer[chunkId]);
+                int first = chunkFirstIntent[chunkId];
+                for (int i = first; i < first + chunkIntentCount[chunkId]; i++) {
+                    resolveIntent(intents, i);
                 }
+            }
+            for (MoveIntents intents : allMoveIntents) {
+                intents.clear();
+            }
+        }
+    }
 
-                sr.setColor(element.color);
-                sr.rect(element.toPixel(x), element.toPixel(y), rectDrawWidth(toIndex), pixelSizeModifier);
-                x = toIndex;
+    private void resolveIntent(MoveIntents intents, int intent) {
+        int firstWrite = intents.getFirstWrite(intent);
+        int endWrite = intents.getEndWrite(intent);
+        for (int w = firstWrite; w < endWrite; w++) {
+            int bit = intents.getWriteY(w) * innerArraySize + intents.getWriteX(w);
+            if ((claimedCells[bit >>> 6] & (1L << bit)) != 0 || !isFinalWriteUnique(intents, w, endWrite)) {
+                retryIntent(intents, intent);
+                return;
+            }
+        }
+        for (int w = firstWrite; w < endWrite; w++) {
+            int x = intents.getWriteX(w);
+            int y = intents.getWriteY(w);
+            int bit = y * innerArraySize + x;
+            claimedCells[bit >>> 6] |= 1L << bit;
+            setElementAtIndex(x, y, intents.getWriteElement(w));
+            reportToChunkActive(x, y);
+        }
+        Element stepper = intents.getStepper(intent);
+        if (stepper.getMatrixX() != intents.getOriginX(intent) || stepper.getMatrixY() != intents.getOriginY(intent)) {
+            // The step ran before the move landed, so it counted itself as not having moved.
+            stepper.stoppedMovingCount = 0;
+        }
+        lastAppliedMoves++;
+    }
+
+    /**
+     * False if the element of write w also ends up in another cell of the same intent. The step only
+     * sees its own position change once the intent is applied, so a step that moves twice would
+     * otherwise leave the element in two cells.
+     */
+    private boolean isFinalWriteUnique(MoveIntents intents, int w, int endWrite) {
+        Element element = intents.getWriteElement(w);
+        if (element instanceof EmptyCell) {
+            // Empty cells may share one instance.
+            return true;
+        }
+        for (int other = w + 1; other < endWrite; other++) {
+            boolean sameCell = intents.getWriteX(other) == intents.getWriteX(w) && intents.getWriteY(other) == intents.getWriteY(w);
+            if (sameCell) {
+                // Overwritten later in the intent, so this write is not final.
+                return true;
+            }
+        }
+        for (int other = w + 1; other < endWrite; other++) {
+            if (intents.getWriteElement(other) == element && isFinalWrite(intents, other, endWrite)) {
+                return false;
+            }
+        }
+        return true;
+    }
 
+    private boolean isFinalWrite(MoveIntents intents, int w, int endWrite) {
+        for (int other = w + 1; other < endWrite; other++) {
+            if (intents.getWriteX(other) == intents.getWriteX(w) && intents.getWriteY(other) == intents.getWriteY(w)) {
+                return false;
             }
         }
+        return true;
+    }
+
+    private void retryIntent(MoveIntents intents, int intent) {
+        for (int k = intents.getFirstKill(intent); k < intents.getEndKill(intent); k++) {
+            Element killed = intents.getKilled(k);
+            int x = killed.getMatrixX();
+            int y = killed.getMatrixY();
+            if (killed.isDead() && isWithinBounds(x, y) && matrix.get(x, y) == killed) {
+                // Its death was part of the dropped intent, so it is still alive in the grid.
+                killed.revive();
+                reportToChunkActive(x, y);
+            }
+        }
+        reportToChunkActive(intents.getOriginX(intent), intents.getOriginY(intent));
+        lastRetriedMoves++;
+    }
+
+    /**
+     * Called by Element.die once it has claimed the element's death. While proposing moves the
+     * death is kept with the stepping element's intent, so dropping the intent can undo it.
+     */
+    public void recordDeath(Element element) {
+        if (proposingMoves) {
+            moveIntents.get().kill(element);
+        }
+    }
+
+    /**
+     * Puts the replacement of a dying element in its cell. While proposing moves an element only
+     * takes the coordinates of a move once the intent is applied, and a step that moves more than
+     * once writes it to more than one cell, so it is replaced in every cell it is in as far as this
+     * thread's open intent can tell.
+     */
+    public void replaceElement(Element element, Element replacement) {
+        if (proposingMoves) {
+            MoveIntents intents = moveIntents.get();
+            for (int w = intents.findWrite(element, intents.getWriteCount()); w != -1; w = intents.findWrite(element, w)) {
+                replaceIfPresent(element, replacement, intents.getWriteX(w), intents.getWriteY(w));
+            }
+            replaceIfPresent(element, replacement, element.getMatrixX(), element.getMatrixY());
+            return;
+        }
+        setElementAtIndex(element.getMatrixX(), element.getMatrixY(), replacement);
+        reportToChunkActive(element.getMatrixX(), element.getMatrixY());
+    }
+
+    private void replaceIfPresent(Element element, Element replacement, int x, int y) {
+        if (get(x, y) == element) {
+            setElementAtIndex(x, y, replacement);
+            reportToChunkActive(x, y);
+        }
+    }
+
+    public int getLastAppliedMoves() {
+        return lastAppliedMoves;
+    }
+
+    public int getLastRetriedMoves() {
+        return lastRetriedMoves;
+    }
+
+    public void drawProvidedRows(int minRow, int maxRow, ShapeRenderer sr) {
+        sr.begin();
+        sr.set(ShapeRenderer.ShapeType.Filled);
+        drawRows(minRow, maxRow, sr);
         sr.end();
     }
 
@@ -299,15 +812,19 @@ public class CellularMatrix {
         }
     }
 
-    public void addExplosion(int radius, int strength, Element sourceElement) {
+    public synchronized void addExplosion(int radius, int strength, Element sourceElement) {
         explosionArray.add(new Explosion(this, radius, strength, sourceElement));
     }
 
-    public void addExplosion(int radius, int strength, int matrixX, int matrixY) {
+    public synchronized void addExplosion(int radius, int strength, int matrixX, int matrixY) {
         explosionArray.add(new Explosion(this, radius, strength, matrixX, matrixY));
     }
 
     public void executeExplosions() {
+        if (WorldRandom.deterministic) {
+            // Stepper threads queue explosions in whatever order they get to them.
+            explosionArray.sort(Explosion.ORDER);
+        }
         for (Explosion explosion : explosionArray) {
             explosion.enact();
         }
@@ -324,7 +841,14 @@ public class CellularMatrix {
     }
 
     public boolean clearAll() {
-        matrix = generateMatrix();
+        if (matrix instanceof DirectBufferGrid) {
+            // Emptied in place, a mapped grid would otherwise map the world file again on every clear.
+            ((DirectBufferGrid) matrix).clear();
+        } else {
+            matrix = generateMatrix();
+        }
+        Arrays.fill(renderDirty, true);
+        sleepMap.wakeAll();
         spoutArray.clear();
         physicsElementActors.forEach(pea -> world.destroyBody(pea.getPhysicsBody()));
         physicsElementActors.clear();
@@ -343,25 +867,55 @@ public class CellularMatrix {
 
     public Element get(int x, int y) {
         if (isWithinBounds(x, y)) {
-            return matrix.get(y).get(x);
+            if (proposingMoves) {
+                Element written = moveIntents.get().read(x, y);
+                if (written != null) {
+                    return written;
+                }
+            }
+            return matrix.get(x, y);
         } else {
             return null;
         }
     }
 
-    public Array<Element> getRow(int index) {
-        return matrix.get(index);
+    public GridRow getRow(int index) {
+        return matrix.getRow(index);
+    }
+
+    public void syncElement(Element element) {
+        int x = element.getMatrixX();
+        int y = element.getMatrixY();
+        if (isWithinBounds(x, y) && matrix.get(x, y) == element) {
+            matrix.sync(x, y);
+            markRenderDirty(x, y);
+        }
+    }
+
+    public void syncCell(int x, int y) {
+        if (isWithinBounds(x, y)) {
+            matrix.sync(x, y);
+            markRenderDirty(x, y);
+        }
     }
 
     public boolean setElementAtIndex(int x, int y, Element element) {
-        matrix.get(y).set(x, element);
+        if (proposingMoves) {
+            moveIntents.get().write(x, y, element);
+            return true;
+        }
+        matrix.set(x, y, element);
+        markRenderDirty(x, y);
         element.setCoordinatesByMatrix(x, y);
+        sleepMap.wakeNeighborhood(x, y);
         return true;
     }
 
     public boolean setElementAtSecondLocation(int x, int y, Element element) {
         if (isWithinBounds(x, y)) {
-            matrix.get(y).set(x, element);
+            matrix.set(x, y, element);
+            markRenderDirty(x, y);
+            sleepMap.wakeNeighborhood(x, y);
             element.setSecondaryCoordinatesByMatrix(x, y);
             return true;
         }
@@ -418,7 +972,8 @@ public class CellularMatrix {
     }
 
     public void reshuffleXIndexes() {
-        Collections.shuffle(shuffledXIndexes);
+        WorldRandom.shuffle(shuffledXIndexes);
+        WorldRandom.shuffle(shuffledChunkXOffsets);
     }
 
     private List<Integer> generateShuffledIndexes(int size) {
@@ -435,7 +990,7 @@ public class CellularMatrix {
         List<Integer> list = new ArrayList<>();
         for (int i = 1; i <= innerArraySize; i++) {
             if (i % colSize == 0) {
-                Collections.shuffle(list);
+                WorldRandom.shuffle(list);
                 indexList.add(list);
                 list = new ArrayList<>(colSize);
             }
@@ -444,6 +999,12 @@ public class CellularMatrix {
         if (!indexList.contains(list)) {
             indexList.get(indexList.size() - 1).addAll(list);
         }
+        int[] starts = new int[indexList.size() + 1];
+        for (int t = 0; t < indexList.size(); t++) {
+            starts[t] = Collections.min(indexList.get(t));
+        }
+        starts[indexList.size()] = innerArraySize;
+        stripeStarts = starts;
         shuffledXIndexesForThreads = indexList;
         return indexList;
     }
@@ -632,8 +1193,8 @@ public class CellularMatrix {
     }
 
     private Vector3 generateRandomVelocityWithBounds(int lowerX, int upperX, int lowerY, int upperY) {
-        int x = ThreadLocalRandom.current().nextInt(lowerX, upperX);
-        int y = ThreadLocalRandom.current().nextInt(lowerY, upperY);
+        int x = WorldRandom.nextInt(lowerX, upperX);
+        int y = WorldRandom.nextInt(lowerY, upperY);
         return new Vector3(x, y, 0);
     }
 
@@ -646,24 +1207,47 @@ public class CellularMatrix {
     }
 
     public void reportToChunkActive(int x, int y) {
+        sleepMap.wakeNeighborhood(x, y);
         if (useChunks && isWithinBounds(x, y)) {
-            if (x % Chunk.size == 0) {
-                Chunk chunk = getChunkForCoordinates(x - 1 , y);
-                if (chunk != null) chunk.setShouldStepNextFrame(true);
-            }
-            if (x % Chunk.size == Chunk.size - 1) {
-                Chunk chunk = getChunkForCoordinates(x + 1 , y);
-                if (chunk != null) chunk.setShouldStepNextFrame(true);
-            }
-            if (y % Chunk.size == 0) {
-                Chunk chunk = getChunkForCoordinates(x, y - 1);
-                if (chunk != null) chunk.setShouldStepNextFrame(true);
-            }
-            if (y % Chunk.size == Chunk.size - 1) {
-                Chunk chunk = getChunkForCoordinates(x, y + 1);
-                if (chunk != null) chunk.setShouldStepNextFrame(true);
-            }
-            getChunkForCoordinates(x, y).setShouldStepNextFrame(true);
+            getChunkForCoordinates(x, y).markDirty(x - 1, y - 1, x + 1, y + 1);
+            boolean left = x % Chunk.size == 0 && x > 0;
+            boolean right = x % Chunk.size == Chunk.size - 1 && x < innerArraySize - 1;
+            boolean below = y % Chunk.size == 0 && y > 0;
+            boolean above = y % Chunk.size == Chunk.size - 1 && y < outerArraySize - 1;
+            if (left) markNeighborChunkDirty(x - 1, y);
+            if (right) markNeighborChunkDirty(x + 1, y);
+            if (below) markNeighborChunkDirty(x, y - 1);
+            if (above) markNeighborChunkDirty(x, y + 1);
+            if (left && below) markNeighborChunkDirty(x - 1, y - 1);
+            if (left && above) markNeighborChunkDirty(x - 1, y + 1);
+            if (right && below) markNeighborChunkDirty(x + 1, y - 1);
+            if (right && above) markNeighborChunkDirty(x + 1, y + 1);
+        }
+    }
+
+    public void wakeCell(Element element) {
+        sleepMap.wake(element.getMatrixX(), element.getMatrixY());
+    }
+
+    public void wakeCell(int x, int y) {
+        sleepMap.wake(x, y);
+    }
+
+    /**
+     * Applies the wakeups collected during the last frame. Called once per frame before stepping.
+     */
+    public void applyWakeups() {
+        sleepMap.applyWakeups();
+    }
+
+    public int getSleepingCellCount() {
+        return sleepMap.getSleepingCount();
+    }
+
+    private void markNeighborChunkDirty(int neighborX, int neighborY) {
+        Chunk chunk = getChunkForCoordinates(neighborX, neighborY);
+        if (chunk != null) {
+            chunk.markDirty(neighborX - 1, neighborY - 1, neighborX + 1, neighborY + 1);
         }
     }
 
@@ -685,7 +1269,7 @@ public class CellularMatrix {
     }
 
     public boolean shouldElementInChunkStep(Element element) {
-        return getChunkForElement(element).getShouldStep();
+        return getChunkForElement(element).isDirty(element.getMatrixX(), element.getMatrixY());
     }
 
     public Chunk getChunkForElement(Element element) {
@@ -701,16 +1285,100 @@ public class CellularMatrix {
         return null;
     }
 
-    public void resetChunks() {
+    /**
+     * Rebuilds the active chunk lists for this frame. A chunk is active when it has a dirty
+     * rectangle or any awake cell, so it must run after resetChunks and applyWakeups.
+     * Without the sleep map every cell is awake and every chunk is active.
+     */
+    public void updateActiveChunks() {
+        activeChunkCount = 0;
+        for (List<Chunk> passChunks : activeChunksByPass) {
+            passChunks.clear();
+        }
         for (int r = 0; r < chunks.size; r++) {
             Array<Chunk> chunkRow = chunks.get(r);
+            boolean rowActive = false;
+            int rowMinY = Integer.MAX_VALUE;
+            int rowMaxY = -1;
             for (int c = 0; c < chunkRow.size; c++) {
                 Chunk chunk = chunkRow.get(c);
-                chunk.shiftShouldStepAndReset();
+                int bounds = calculateStepBounds(chunk);
+                boolean active = !ChunkActivity.isEmpty(bounds);
+                if (matrix instanceof DirectBufferGrid) {
+                    ((DirectBufferGrid) matrix).updateIdleChunk(c, r, active);
+                }
+                if (active && cullToView && !isChunkNearView(chunk) && !isOutsideViewStepDue(chunk)) {
+                    // Carried over so the chunk is still dirty on its next turn.
+                    chunkActivity.markDirty(chunk.getId(), chunkActivity.get(chunk.getId()));
+                    active = false;
+                }
+                chunk.setActive(active);
+                stepBounds[chunk.getId()] = active ? bounds : ChunkActivity.EMPTY;
+                if (active) {
+                    activeChunksByPass.get((r % 2) * 2 + c % 2).add(chunk);
+                    activeChunkCount++;
+                    rowActive = true;
+                    rowMinY = Math.min(rowMinY, chunk.getMinY() + ChunkActivity.minY(bounds));
+                    rowMaxY = Math.max(rowMaxY, chunk.getMinY() + ChunkActivity.maxY(bounds));
+                }
             }
+            activeChunkRows[r] = rowActive;
+            activeRowMinY[r] = rowMinY;
+            activeRowMaxY[r] = rowMaxY;
         }
     }
 
+    // The awake cells plus the dirty rectangle, which is all that can do anything this frame:
+    // sleeping cells are skipped, and movable solids and liquids outside the rectangle do not move.
+    private int calculateStepBounds(Chunk chunk) {
+        if (!useSleeping) {
+            return ChunkActivity.pack(0, 0, chunk.getMaxX() - chunk.getMinX(), chunk.getMaxY() - chunk.getMinY());
+        }
+        int bounds = sleepMap.awakeBounds(chunk.getMinX(), chunk.getMinY(), chunk.getMaxX(), chunk.getMaxY());
+        return useChunks ? ChunkActivity.union(bounds, chunkActivity.get(chunk.getId())) : bounds;
+    }
+
+    /**
+     * Sets the cells in view, inclusive and in matrix coordinates. Clamped to the matrix.
+     */
+    public void setView(int minX, int minY, int maxX, int maxY) {
+        viewMinX = Math.max(minX, 0);
+        viewMinY = Math.max(minY, 0);
+        viewMaxX = Math.min(maxX, innerArraySize - 1);
+        viewMaxY = Math.min(maxY, outerArraySize - 1);
+    }
+
+    public int getViewMinX() {
+        return cullToView ? viewMinX : 0;
+    }
+
+    public int getViewMinY() {
+        return cullToView ? viewMinY : 0;
+    }
+
+    public int getViewMaxX() {
+        return cullToView ? viewMaxX : innerArraySize - 1;
+    }
+
+    public int getViewMaxY() {
+        return cullToView ? viewMaxY : outerArraySize - 1;
+    }
+
+    private boolean isChunkNearView(Chunk chunk) {
+        int margin = viewMarginChunks * Chunk.size;
+        return chunk.getMaxX() >= viewMinX - margin && chunk.getMinX() <= viewMaxX + margin
+                && chunk.getMaxY() >= viewMinY - margin && chunk.getMinY() <= viewMaxY + margin;
+    }
+
+    // Chunks outside the view take turns, offset by id, so their steps are spread over the frames.
+    private boolean isOutsideViewStepDue(Chunk chunk) {
+        return outsideViewStepInterval > 0 && (CellularAutomaton.frameEpoch + chunk.getId()) % outsideViewStepInterval == 0;
+    }
+
+    public void resetChunks() {
+        chunkActivity.swap();
+    }
+
 //    public void spawnRect(Vector3 mouseDownPos, Vector3 mouseUpPos, ElementType currentlySelectedElement, BodyDef.BodyType bodyType) {
 //        int mod = CellularAutomaton.box2dSizeModifier;
 //        int matrixMouseDownX = toMatrix(mouseDownPos.x);
@@ -895,6 +1563,10 @@ public class CellularMatrix {
             int distance = distanceBetweenTwoPoints(matrixX, boid.getMatrixX(), matrixY, boid.getMatrixY());
             return distance > 0 && distance < Boid.neighborDistance;
         }).collect(Collectors.toList());
+        if (WorldRandom.deterministic) {
+            // Chunk boid maps have no stable order, and only the first maxNeighbors are used.
+            filteredNeighbors.sort(Comparator.comparingInt(boid -> boid.getMatrixY() * innerArraySize + boid.getMatrixX()));
+        }
         List<Boid> subList = filteredNeighbors.subList(0, Math.min(Boid.maxNeighbors, filteredNeighbors.size()));
         Array<Boid> returnList = new Array<>();
         subList.forEach(returnList::add);
@@ -10,6 +10,7 @@ import com.gdx.cellular.elements.EmptyCell;
 import com.gdx.cellular.elements.liquid.Liquid;
 import com.gdx.cellular.elements.solid.Solid;
 import com.gdx.cellular.util.Chunk;
+import com.gdx.cellular.util.WorldRandom;
 
 import java.util.HashMap;
 import java.util.List;
@@ -40,8 +41,7 @@ public class Boid extends Element {
 
     @Override
     public void step(CellularMatrix matrix) {
-        if (stepped.get(0) == CellularAutomaton.stepped.get(0)) return;
-        stepped.flip(0);
+        if (!markStepped()) return;
 
 //        List<Boid> neighbors = matrix.getBoidNeighbors(getMatrixX(), getMatrixY());
         Array<Boid> neighbors = matrix.getBoidNeighbors(getMatrixX(), getMatrixY());
@@ -50,8 +50,8 @@ public class Boid extends Element {
         Vector3 alignmentForce = vectorMap.get(ALIGNMENT);
         Vector3 cohese = vectorMap.get(COHESE);
         Vector3 avoid = vectorMap.get(AVOID);
-        float noiseX = 1 - (float) Math.random() * 2;
-        float noiseY = 1 - (float) Math.random() * 2;
+        float noiseX = 1 - (float) WorldRandom.nextDouble() * 2;
+        float noiseY = 1 - (float) WorldRandom.nextDouble() * 2;
         Vector3 noise = new Vector3(noiseX * noiseFactor, noiseY * noiseFactor, 0);
 
         this.vel.add(alignmentForce.scl(1/alignmentFactor));
@@ -98,7 +98,7 @@ public class Boid extends Element {
         Vector3 formerLocation = new Vector3(getMatrixX(), getMatrixY(), 0);
         Vector3 lastValidLocation = new Vector3(getMatrixX(), getMatrixY(), 0);
         boolean onlyCheckingObstacles = false;
-        int scanVariation = SCAN_DISTANCE + (int) (Math.random() * 10);
+        int scanVariation = SCAN_DISTANCE + (int) (WorldRandom.nextDouble() * 10);
         for (int i = 1; i <= upperBound + scanVariation; i++) {
             if (i > upperBound) {
                 onlyCheckingObstacles = true;
@@ -121,7 +121,7 @@ public class Boid extends Element {
                 if (onlyCheckingObstacles) {
                     if (neighbor instanceof Solid || neighbor instanceof Liquid) {
                         float distance = (int) Math.ceil(Math.sqrt(Math.pow(getMatrixX() - modifiedMatrixX, 2) + Math.pow(getMatrixY() - modifiedMatrixY, 2)));
-                        int modifier = Math.random() > 0.5f ? -1 : 1;
+                        int modifier = WorldRandom.nextDouble() > 0.5f ? -1 : 1;
 //                        int modifier = getAvoidModifier();
                         Vector3 newVel = new Vector3(vel.y, vel.x, 0).scl((1/distance) * 15 * modifier);
                         vel.add(newVel);
@@ -139,7 +139,7 @@ public class Boid extends Element {
             } else {
                 if (onlyCheckingObstacles) {
                     float distance = (int) Math.ceil(Math.sqrt(Math.pow(getMatrixX() - modifiedMatrixX, 2) + Math.pow(getMatrixY() - modifiedMatrixY, 2)));
-                    int modifier = Math.random() > 0.5f ? -1 : 1;
+                    int modifier = WorldRandom.nextDouble() > 0.5f ? -1 : 1;
 //                    int modifier = getAvoidModifier();
                     Vector3 newVel = new Vector3(vel.y, vel.x, 0).scl((1/distance) * 15 * modifier);
                     vel.add(newVel);
@@ -1,5 +1,6 @@
 package com.gdx.cellular.box2d;
 
+import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Body;
@@ -11,6 +12,7 @@ import com.gdx.cellular.elements.ElementType;
 import com.gdx.cellular.elements.EmptyCell;
 import com.gdx.cellular.elements.liquid.Liquid;
 import com.gdx.cellular.elements.solid.movable.MovableSolid;
+import com.gdx.cellular.util.PackedColor;
 
 public class PhysicsElementActor {
 
@@ -27,6 +29,7 @@ public class PhysicsElementActor {
     int recalculateCount = 0;
     final int recalculateThreshold = 3;
     private boolean shouldRecalculateBoundaries = false;
+    private final Color drawColor = new Color();
 
     public PhysicsElementActor(Body body, Array<Array<Element>> elements, int minX, int maxY) {
         this.physicsBody = body;
@@ -138,7 +141,7 @@ public class PhysicsElementActor {
             for (int x = 0; x < row.size; x ++) {
                 Element element = row.get(x);
                 if (element != null) {
-                    sr.setColor(element.color);
+                    sr.setColor(PackedColor.toColor(drawColor, element.color));
                     sr.rect(element.toPixel(element.getMatrixX()), element.toPixel(element.getMatrixY()), CellularAutomaton.pixelSizeModifier, CellularAutomaton.pixelSizeModifier);
                     element.secondaryMatrixCoords.forEach(vector2 -> sr.rect(element.toPixel((int) vector2.x), element.toPixel((int) vector2.y), CellularAutomaton.pixelSizeModifier, CellularAutomaton.pixelSizeModifier));
                 }
@@ -151,7 +154,7 @@ public class PhysicsElementActor {
         Vector2 bodyPos = physicsBody.getPosition();
         int bodyCenterMatrixX = (int) ((bodyPos.x * CellularAutomaton.box2dSizeModifier)/2);
         int bodyCenterMatrixY = (int) ((bodyPos.y * CellularAutomaton.box2dSizeModifier)/2);
-        Vector2 matrixPoint = new Vector2(bodyCenterMatrixX + element.owningBodyCoords.x, bodyCenterMatrixY - element.owningBodyCoords.y);
+        Vector2 matrixPoint = new Vector2(bodyCenterMatrixX + element.owningBodyX, bodyCenterMatrixY - element.owningBodyY);
         float angle = physicsBody.getAngle();
         float newX = (float) (((matrixPoint.x-bodyCenterMatrixX) * Math.cos(angle) - (matrixPoint.y-bodyCenterMatrixY) * Math.sin(angle)) + bodyCenterMatrixX);
         float newY = (float) (((matrixPoint.y-bodyCenterMatrixY) * Math.cos(angle) + (matrixPoint.x-bodyCenterMatrixX) * Math.sin(angle)) + bodyCenterMatrixY);
@@ -165,10 +168,10 @@ public class PhysicsElementActor {
         if (replacement instanceof EmptyCell) {
             newReplacement = null;
         }
-        this.elements.get((int) elementToDie.owningBodyCoords.y + yCenterOffset).set((int) elementToDie.owningBodyCoords.x + xCenterOffset, newReplacement);
+        this.elements.get(elementToDie.owningBodyY + yCenterOffset).set(elementToDie.owningBodyX + xCenterOffset, newReplacement);
         if (newReplacement != null) {
             newReplacement.owningBody = this;
-            newReplacement.setOwningBodyCoords(elementToDie.owningBodyCoords);
+            newReplacement.setOwningBodyCoords(elementToDie.owningBodyX, elementToDie.owningBodyY);
         }
         shouldRecalculateBoundaries = true;
         shouldCalculateCount = 2;
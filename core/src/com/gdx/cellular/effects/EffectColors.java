@@ -2,24 +2,21 @@ package com.gdx.cellular.effects;
 
 
 import com.badlogic.gdx.graphics.Color;
-
-import java.util.ArrayList;
-import java.util.List;
+import com.gdx.cellular.util.PackedColor;
+import com.gdx.cellular.util.WorldRandom;
 
 public class EffectColors {
 
-    private static List<Color >fireColors = new ArrayList<>();
-
-    static {
-        fireColors.add(Color.RED);
-        fireColors.add(Color.YELLOW);
-        fireColors.add(Color.YELLOW);
-        fireColors.add(Color.ORANGE);
-        fireColors.add(Color.ORANGE);
-        fireColors.add(Color.ORANGE);
-    }
+    private static final int[] fireColors = {
+            PackedColor.of(Color.RED),
+            PackedColor.of(Color.YELLOW),
+            PackedColor.of(Color.YELLOW),
+            PackedColor.of(Color.ORANGE),
+            PackedColor.of(Color.ORANGE),
+            PackedColor.of(Color.ORANGE)
+    };
 
-    public static Color getRandomFireColor() {
-        return fireColors.get((int) Math.floor(Math.random() * fireColors.size()));
+    public static int getRandomFireColor() {
+        return fireColors[(int) Math.floor(WorldRandom.nextDouble() * fireColors.length)];
     }
 }
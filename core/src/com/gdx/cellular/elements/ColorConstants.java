@@ -4,110 +4,108 @@ import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.gdx.cellular.util.Assets;
 import com.gdx.cellular.util.MaterialMap;
+import com.gdx.cellular.util.PackedColor;
+import com.gdx.cellular.util.WorldRandom;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class ColorConstants {
 
-    private static final Map<String, Color> colorCache = new ConcurrentHashMap<>();
-
     private static final Map<String, MaterialMap> materialsMap = new HashMap<>();
 
-    private static final Map<ElementType, List<Color>> elementColorMap = new HashMap<>();
-    private static final Map<String, List<Color>> namedColorMap = new HashMap<>();
-    private static final Map<String, List<Color>> effectsColorMap = new HashMap<>();
-    private static final Random random = new Random();
+    private static final Map<ElementType, List<Integer>> elementColorMap = new HashMap<>();
+    private static final Map<String, List<Integer>> namedColorMap = new HashMap<>();
+    private static final Map<String, List<Integer>> effectsColorMap = new HashMap<>();
 
     // Movable Solids
-    private static final Color SAND_1 = new Color(255/255f, 255/255f, 0/255f, 1);
-    private static final Color SAND_2 = new Color(178/255f, 201/255f, 6/255f, 1);
-    private static final Color SAND_3 = new Color(233/255f, 252/255f, 90/255f, 1);
+    private static final int SAND_1 = PackedColor.rgba(255/255f, 255/255f, 0/255f, 1);
+    private static final int SAND_2 = PackedColor.rgba(178/255f, 201/255f, 6/255f, 1);
+    private static final int SAND_3 = PackedColor.rgba(233/255f, 252/255f, 90/255f, 1);
 
-    private static final Color DIRT_1 = new Color(96/255f, 47/255f, 18/255f, 1);
-    private static final Color DIRT_2 = new Color(135/255f, 70/255f, 32/255f, 1);
-    private static final Color DIRT_3 = new Color(79/255f, 38/255f, 15/255f, 1);
+    private static final int DIRT_1 = PackedColor.rgba(96/255f, 47/255f, 18/255f, 1);
+    private static final int DIRT_2 = PackedColor.rgba(135/255f, 70/255f, 32/255f, 1);
+    private static final int DIRT_3 = PackedColor.rgba(79/255f, 38/255f, 15/255f, 1);
 
-    private static final Color COAL_1 = new Color(53/255f, 53/255f, 53/255f, 1);
-    private static final Color COAL_2 = new Color(34/255f, 35/255f, 38/255f, 1);
-    private static final Color COAL_3 = new Color(65/255f, 65/255f, 65/255f, 1);
+    private static final int COAL_1 = PackedColor.rgba(53/255f, 53/255f, 53/255f, 1);
+    private static final int COAL_2 = PackedColor.rgba(34/255f, 35/255f, 38/255f, 1);
+    private static final int COAL_3 = PackedColor.rgba(65/255f, 65/255f, 65/255f, 1);
 
-    private static final Color EMBER = new Color(102/255f, 59/255f, 0/255f, 1);
+    private static final int EMBER = PackedColor.rgba(102/255f, 59/255f, 0/255f, 1);
 
-    private static final Color GUNPOWDER_1 = new Color(255/255f, 142/255f, 142/255f, 1);
-    private static final Color GUNPOWDER_2 = new Color(255/255f, 91/255f, 91/255f, 1);
-    private static final Color GUNPOWDER_3 = new Color(219/255f, 160/255f, 160/255f, 1);
+    private static final int GUNPOWDER_1 = PackedColor.rgba(255/255f, 142/255f, 142/255f, 1);
+    private static final int GUNPOWDER_2 = PackedColor.rgba(255/255f, 91/255f, 91/255f, 1);
+    private static final int GUNPOWDER_3 = PackedColor.rgba(219/255f, 160/255f, 160/255f, 1);
 
-    private static final Color SNOW = new Color(1, 1, 1, 1);
+    private static final int SNOW = PackedColor.rgba(1, 1, 1, 1);
 
-    private static final Color PLAYERMEAT = new Color(255/255f, 255/255f, 0/255f, 1);
+    private static final int PLAYERMEAT = PackedColor.rgba(255/255f, 255/255f, 0/255f, 1);
 
     // Immovable Solids
-    private static final Color STONE = new Color(150/255f, 150/255f, 150/255f, 1);
+    private static final int STONE = PackedColor.rgba(150/255f, 150/255f, 150/255f, 1);
 
-    private static final Color BRICK_1 = new Color(188/255f, 3/255f, 0/255f, 1);
-    private static final Color BRICK_2 = new Color(188/255f, 3/255f, 0/255f, 1);
-    private static final Color BRICK_3 = new Color(188/255f, 3/255f, 0/255f, 1);
-    private static final Color BRICK_4 = new Color(188/255f, 3/255f, 0/255f, 1);
-    private static final Color BRICK_5 = new Color(206/255f, 206/255f, 206/255f, 1);
+    private static final int BRICK_1 = PackedColor.rgba(188/255f, 3/255f, 0/255f, 1);
+    private static final int BRICK_2 = PackedColor.rgba(188/255f, 3/255f, 0/255f, 1);
+    private static final int BRICK_3 = PackedColor.rgba(188/255f, 3/255f, 0/255f, 1);
+    private static final int BRICK_4 = PackedColor.rgba(188/255f, 3/255f, 0/255f, 1);
+    private static final int BRICK_5 = PackedColor.rgba(206/255f, 206/255f, 206/255f, 1);
 
-    private static final Color WOOD_1 = new Color(165/255f, 98/255f, 36/255f, 1);
-    private static final Color WOOD_2 = new Color(61/255f, 33/255f, 7/255f, 1);
-    private static final Color WOOD_3 = new Color(140/255f, 74/255f, 12/255f, 1);
+    private static final int WOOD_1 = PackedColor.rgba(165/255f, 98/255f, 36/255f, 1);
+    private static final int WOOD_2 = PackedColor.rgba(61/255f, 33/255f, 7/255f, 1);
+    private static final int WOOD_3 = PackedColor.rgba(140/255f, 74/255f, 12/255f, 1);
 
-    private static final Color TITANIUM = new Color(234/255f, 234/255f, 234/255f, 1);
+    private static final int TITANIUM = PackedColor.rgba(234/255f, 234/255f, 234/255f, 1);
 
-    private static final Color SLIME_MOLD_1 = new Color(255/255f, 142/255f, 243/255f, 1);
-    private static final Color SLIME_MOLD_2 = new Color(201/255f, 58/255f, 107/255f, 1);
-    private static final Color SLIME_MOLD_3 = new Color(234/255f, 35/255f, 213/255f, 1);
+    private static final int SLIME_MOLD_1 = PackedColor.rgba(255/255f, 142/255f, 243/255f, 1);
+    private static final int SLIME_MOLD_2 = PackedColor.rgba(201/255f, 58/255f, 107/255f, 1);
+    private static final int SLIME_MOLD_3 = PackedColor.rgba(234/255f, 35/255f, 213/255f, 1);
 
 
-    private static final Color GROUND = new Color(68/255f, 37/255f, 37/255f, 1);
+    private static final int GROUND = PackedColor.rgba(68/255f, 37/255f, 37/255f, 1);
 
 
     // Liquids
-    private static final Color WATER = new Color(28/255f, 86/255f, 234/255f, .8f);
+    private static final int WATER = PackedColor.rgba(28/255f, 86/255f, 234/255f, .8f);
 
-    private static final Color OIL = new Color(55/255f, 60/255f, 73/255f, .8f);
+    private static final int OIL = PackedColor.rgba(55/255f, 60/255f, 73/255f, .8f);
 
-    private static final Color ACID = new Color(0/255f, 255/255f, 0/255f, 1);
+    private static final int ACID = PackedColor.rgba(0/255f, 255/255f, 0/255f, 1);
 
-    private static final Color LAVA = new Color(255/255f, 165/255f, 0/255f, 1);
+    private static final int LAVA = PackedColor.rgba(255/255f, 165/255f, 0/255f, 1);
 
-    private static final Color BLOOD = new Color(234/255f, 0 /255f,0/255f, .8f);
+    private static final int BLOOD = PackedColor.rgba(234/255f, 0 /255f,0/255f, .8f);
 
-    private static final Color CEMENT = new Color(209/255f, 209/255f,209/255f, 1f);
+    private static final int CEMENT = PackedColor.rgba(209/255f, 209/255f,209/255f, 1f);
 
 
     // Gasses
-    private static final Color SMOKE = new Color(147/255f, 147/255f, 147/255f, 0.5f);
+    private static final int SMOKE = PackedColor.rgba(147/255f, 147/255f, 147/255f, 0.5f);
 
-    private static final Color FLAMMABLE_GAS = new Color(0/255f, 255/255f, 0/255f, 0.5f);
+    private static final int FLAMMABLE_GAS = PackedColor.rgba(0/255f, 255/255f, 0/255f, 0.5f);
 
-    private static final Color SPARK = new Color(89/255f, 35/255f, 13/255f, 1);
+    private static final int SPARK = PackedColor.rgba(89/255f, 35/255f, 13/255f, 1);
 
-    private static final Color STEAM_1 = new Color(204/255f, 204/255f, 204/255f, 0.8f);
-    private static final Color STEAM_2 = new Color(204/255f, 204/255f, 204/255f, 0.1f);
-    private static final Color STEAM_3 = new Color(204/255f, 204/255f, 204/255f, 0.45f);
+    private static final int STEAM_1 = PackedColor.rgba(204/255f, 204/255f, 204/255f, 0.8f);
+    private static final int STEAM_2 = PackedColor.rgba(204/255f, 204/255f, 204/255f, 0.1f);
+    private static final int STEAM_3 = PackedColor.rgba(204/255f, 204/255f, 204/255f, 0.45f);
 
     // Effects
     private static final String FIRE_NAME = "Fire";
-    private static final Color FIRE_1 = new Color(89/255f, 35/255f, 13/255f, 1);
-    private static final Color FIRE_2 = new Color(100/255f, 27/255f, 7/255f, 1);
-    private static final Color FIRE_3 = new Color(77/255f, 10/255f, 20/255f, 1);
+    private static final int FIRE_1 = PackedColor.rgba(89/255f, 35/255f, 13/255f, 1);
+    private static final int FIRE_2 = PackedColor.rgba(100/255f, 27/255f, 7/255f, 1);
+    private static final int FIRE_3 = PackedColor.rgba(77/255f, 10/255f, 20/255f, 1);
 
     // Others
-    private static final Color PARTICLE = new Color(0/255f, 0/255f, 0/255f, 0);
-    private static final Color BOID_1 = new Color(0/255f, 255/255f, 255/255f, 0);
-    private static final Color BOID_2 = new Color(200/255f, 0/255f, 255/255f, 0);
-    private static final Color BOID_3 = new Color(150/255f, 255/255f, 255/255f, 0);
-    private static final Color EMPTY_CELL = new Color(0/255f, 0/255f, 0/255f, 0);
+    private static final int PARTICLE = PackedColor.rgba(0/255f, 0/255f, 0/255f, 0);
+    private static final int BOID_1 = PackedColor.rgba(0/255f, 255/255f, 255/255f, 0);
+    private static final int BOID_2 = PackedColor.rgba(200/255f, 0/255f, 255/255f, 0);
+    private static final int BOID_3 = PackedColor.rgba(150/255f, 255/255f, 255/255f, 0);
+    private static final int EMPTY_CELL = PackedColor.rgba(0/255f, 0/255f, 0/255f, 0);
 
     private static final String GRASS = "Grass";
-    private static final Color GRASS_1 = new Color(0, 216/155f, 93/255f, 0);
-    private static final Color GRASS_2 = new Color(0, 173/155f, 75/255f, 0);
-    private static final Color GRASS_3 = new Color(0, 239/155f, 103/255f, 0);
+    private static final int GRASS_1 = PackedColor.rgba(0, 216/155f, 93/255f, 0);
+    private static final int GRASS_2 = PackedColor.rgba(0, 173/155f, 75/255f, 0);
+    private static final int GRASS_3 = PackedColor.rgba(0, 239/155f, 103/255f, 0);
 
     static {
         Arrays.stream(ElementType.values()).forEach(type -> elementColorMap.put(type, new ArrayList<>()));
@@ -176,7 +174,7 @@ public class ColorConstants {
 
         elementColorMap.get(ElementType.SPARK).add(SPARK);
 
-        elementColorMap.get(ElementType.EXPLOSIONSPARK).add(Color.ORANGE);
+        elementColorMap.get(ElementType.EXPLOSIONSPARK).add(PackedColor.of(Color.ORANGE));
 
         elementColorMap.get(ElementType.PARTICLE).add(PARTICLE);
 
@@ -212,23 +210,23 @@ public class ColorConstants {
         materialsMap.put("BRICK", new MaterialMap(brickPixmap));
     }
 
-    public static Color getColorByName(String name) {
-        return namedColorMap.get(name).get(random.nextInt(namedColorMap.get(name).size()));
+    public static int getColorByName(String name) {
+        return namedColorMap.get(name).get(WorldRandom.nextInt(namedColorMap.get(name).size()));
     }
 
-    public static Color getColorForElementType(ElementType elementType) {
-        List<Color> colorList = elementColorMap.get(elementType);
-        return elementColorMap.get(elementType).get(random.nextInt(colorList.size()));
+    public static int getColorForElementType(ElementType elementType) {
+        List<Integer> colorList = elementColorMap.get(elementType);
+        if (colorList.size() == 1) {
+            // No draw, so one-off objects like the EmptyCell instance do not shift the random streams.
+            return colorList.get(0);
+        }
+        return colorList.get(WorldRandom.nextInt(colorList.size()));
     }
 
-    public static Color getColorForElementType(ElementType elementType, int x, int y) {
-        if (materialsMap.get(elementType.name()) != null) {
-            int rgb = materialsMap.get(elementType.name()).getRGB(x, y);
-            return colorCache.computeIfAbsent(String.valueOf(rgb), k-> {
-                Color color = new Color();
-                Color.rgba8888ToColor(color, rgb);
-                return color;
-            });
+    public static int getColorForElementType(ElementType elementType, int x, int y) {
+        MaterialMap materialMap = materialsMap.get(elementType.name());
+        if (materialMap != null) {
+            return materialMap.getRGB(x, y);
         } else {
             return getColorForElementType(elementType);
         }
@@ -1,77 +1,181 @@
 package com.gdx.cellular.elements;
 
-import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
 import com.gdx.cellular.CellularAutomaton;
 import com.gdx.cellular.CellularMatrix;
 import com.gdx.cellular.box2d.PhysicsElementActor;
 import com.gdx.cellular.effects.EffectColors;
+import com.gdx.cellular.util.PackedColor;
+import com.gdx.cellular.util.WorldRandom;
 
 import java.util.ArrayList;
-import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 public abstract class Element {
 
     private static final int REACTION_FRAME = 3;
     public static final int EFFECTS_FRAME = 1;
-    public int pixelX;
-    public int pixelY;
+    public static final int NO_LIFESPAN = Integer.MIN_VALUE;
+    private static final List<Vector2> NO_SECONDARY_COORDS = Collections.emptyList();
+    private static final AtomicIntegerFieldUpdater<Element> DEAD = AtomicIntegerFieldUpdater.newUpdater(Element.class, "dead");
 
     private int matrixX;
     private int matrixY;
     public Vector3 vel;
 
-    public List<Vector2> secondaryMatrixCoords = new ArrayList<>();
+    // Only elements owned by a physics body ever get secondary coordinates, so the list is allocated on first use.
+    public List<Vector2> secondaryMatrixCoords = NO_SECONDARY_COORDS;
 
-    public float frictionFactor;
     public boolean isFreeFalling = true;
-    public float inertialResistance;
     public int stoppedMovingCount = 0;
-    public int stoppedMovingThreshold = 1;
-    public int mass;
     public int health = 500;
-    public int flammabilityResistance = 100;
-    public int resetFlammabilityResistance = flammabilityResistance / 2;
+    public int flammabilityResistance;
     public boolean isIgnited;
-    public int heatFactor = 10;
-    public int fireDamage = 3;
     public boolean heated = false;
     public int temperature = 0;
-    public int coolingFactor = 5;
-    public Integer lifeSpan = null;
+    public int coolingFactor;
+    public int lifeSpan = NO_LIFESPAN;
     public ElementType elementType;
     public PhysicsElementActor owningBody = null;
-    public Vector2 owningBodyCoords = null;
-    public int explosionResistance = 1;
-    public int explosionRadius = 0;
+    public int owningBodyX;
+    public int owningBodyY;
     public boolean discolored = false;
 
     public float xThreshold = 0;
     public float yThreshold = 0;
 
-    public boolean isDead = false;
+    // 1 once the element has died. Set by compare and set, so when steppers on two threads kill the
+    // same element only one of them replaces it and releases it to the pool.
+    private volatile int dead = 0;
 
-    public Color color;
+    public int color;
 
-    public BitSet stepped = new BitSet(1);
+    // Frame epoch this element last stepped in. New elements start at the current epoch, so an
+    // element created mid frame first steps in the next one.
+    public int stepEpoch;
 
     public Element(int x, int y) {
         setCoordinatesByMatrix(x, y);
         this.elementType = getEnumType();
+        this.flammabilityResistance = elementType.properties.getFlammabilityResistance();
+        this.coolingFactor = elementType.properties.getCoolingFactor();
         this.color = ColorConstants.getColorForElementType(this.elementType, x, y);
-        stepped.set(0, CellularAutomaton.stepped.get(0));
+        this.stepEpoch = CellularAutomaton.frameEpoch;
+    }
+
+    /**
+     * Returns a pooled element to the state a newly constructed one would have at x, y.
+     * Subclasses that set state in their constructor must restore it here as well.
+     */
+    public void reset(int x, int y) {
+        setCoordinatesByMatrix(x, y);
+        secondaryMatrixCoords = NO_SECONDARY_COORDS;
+        isFreeFalling = true;
+        stoppedMovingCount = 0;
+        health = 500;
+        flammabilityResistance = elementType.properties.getFlammabilityResistance();
+        isIgnited = false;
+        heated = false;
+        temperature = 0;
+        coolingFactor = elementType.properties.getCoolingFactor();
+        lifeSpan = NO_LIFESPAN;
+        owningBody = null;
+        owningBodyX = 0;
+        owningBodyY = 0;
+        discolored = false;
+        xThreshold = 0;
+        yThreshold = 0;
+        dead = 0;
+        color = ColorConstants.getColorForElementType(elementType, x, y);
+        stepEpoch = CellularAutomaton.frameEpoch;
+    }
+
+    /**
+     * Claims this frame's step. Returns false if the element already stepped in the current epoch.
+     */
+    public final boolean markStepped() {
+        int epoch = CellularAutomaton.frameEpoch;
+        if (stepEpoch == epoch) {
+            return false;
+        }
+        stepEpoch = epoch;
+        return true;
+    }
+
+    /**
+     * Makes the element eligible to step in the current frame. For cells that already existed and are
+     * only rebuilt mid frame, like the ones DirectBufferGrid materializes lazily.
+     */
+    public final void clearStepped() {
+        stepEpoch = CellularAutomaton.frameEpoch - 1;
     }
 
 //    public abstract void draw(ShapeRenderer sr);
 
     public void customElementFunctions(CellularMatrix matrix) { }
 
+    /**
+     * Whether the matrix may skip this cell until something wakes it. Checked right after each step.
+     */
+    public boolean canSleep() {
+        return false;
+    }
+
+    /**
+     * Whether a new element of this type, given the fields CellFlags and the DirectBufferGrid
+     * record keep, would be the same as this one. Counters the record has no room for must still
+     * hold the value a new element starts with. Subclasses with state of their own extend this.
+     */
+    public boolean canRebuildFromRecord() {
+        return owningBody == null
+                && lifeSpan == NO_LIFESPAN
+                && (stoppedMovingCount == 0 || hasNotMovedBeyondThreshold())
+                && flammabilityResistance == elementType.properties.getFlammabilityResistance()
+                && coolingFactor == elementType.properties.getCoolingFactor()
+                && xThreshold == 0
+                && yThreshold == 0;
+    }
+
+    /**
+     * How many columns to either side of its cell a step of this element may read or write:
+     * the distance its velocity carries it this frame, plus the neighbours it heats, ignites
+     * or spawns into once it stops.
+     */
+    public int getStepReach() {
+        if (vel == null) {
+            return 2;
+        }
+        return (int) Math.ceil(Math.abs(vel.x) / 60f) + 3;
+    }
+
+    /**
+     * Like getStepReach, for the rows above and below its cell.
+     */
+    public int getVerticalStepReach() {
+        if (vel == null) {
+            return 2;
+        }
+        return (int) Math.ceil(Math.abs(vel.y) / 60f) + 3;
+    }
+
+    protected boolean isQuiet() {
+        return !isIgnited && !heated && lifeSpan == NO_LIFESPAN && owningBody == null;
+    }
+
     public void setVelocity(Vector3 vel) {
         this.vel = vel;
     }
 
+    /**
+     * Used when a neighbour hands its vertical speed on to this element.
+     */
+    public void setVelocityY(float y) {
+        this.vel.y = y;
+    }
+
     public abstract void step(CellularMatrix matrix);
 
     public boolean actOnOther(Element other, CellularMatrix matrix) {
@@ -126,12 +230,9 @@ public abstract class Element {
         matrix.setElementAtIndex(moveToLocationMatrixX, moveToLocationMatrixY, toSwap);
     }
 
-    public void setOwningBodyCoords(Vector2 coords) {
-        setOwningBodyCoords((int) coords.x, (int) coords.y);
-    }
-
     public void setOwningBodyCoords(int x, int y) {
-        this.owningBodyCoords = new Vector2(x, y);
+        this.owningBodyX = x;
+        this.owningBodyY = y;
     }
 
     public void setCoordinatesByMatrix(Vector2 pos) {
@@ -145,21 +246,22 @@ public abstract class Element {
 
 
     public void setSecondaryCoordinatesByMatrix(int providedX, int providedY) {
+        if (this.secondaryMatrixCoords == NO_SECONDARY_COORDS) {
+            this.secondaryMatrixCoords = new ArrayList<>(2);
+        }
         this.secondaryMatrixCoords.add(new Vector2(providedX, providedY));
     }
 
     public void resetSecondaryCoordinates() {
-        this.secondaryMatrixCoords = new ArrayList<>();
+        this.secondaryMatrixCoords = NO_SECONDARY_COORDS;
     }
 
     public void setXByMatrix(int providedVal) {
         this.setMatrixX(providedVal);
-        this.pixelX = toPixel(providedVal);
     }
 
     public void setYByMatrix(int providedVal) {
         this.setMatrixY(providedVal);
-        this.pixelY = toPixel(providedVal);
     }
 
     public int toMatrix(int pixelVal) {
@@ -191,7 +293,7 @@ public abstract class Element {
                 if (!(x == 0 && y == 0)) {
                     Element neighbor = matrix.get(x, y);
                     if (neighbor != null) {
-                        neighbor.receiveHeat(matrix, heatFactor);
+                        neighbor.receiveHeat(matrix, getHeatFactor());
                     }
                 }
             }
@@ -207,8 +309,9 @@ public abstract class Element {
         if (isIgnited) {
             return false;
         }
-        this.flammabilityResistance -= (int) (Math.random() * heat);
+        this.flammabilityResistance -= (int) (WorldRandom.nextDouble() * heat);
         checkIfIgnited();
+        matrix.wakeCell(this);
         return true;
     }
 
@@ -242,13 +345,18 @@ public abstract class Element {
     }
 
     protected void die(CellularMatrix matrix, ElementType type) {
-        this.isDead = true;
+        if (!DEAD.compareAndSet(this, 0, 1)) {
+            // Already killed, and replaced, by an earlier call.
+            return;
+        }
+        matrix.recordDeath(this);
         Element newElement = type.createElementByMatrix(getMatrixX(), getMatrixY());
-        matrix.setElementAtIndex(getMatrixX(), getMatrixY(), newElement);
-        matrix.reportToChunkActive(getMatrixX(), getMatrixY());
+        matrix.replaceElement(this, newElement);
         if (owningBody != null) {
             owningBody.elementDeath(this, newElement);
             secondaryMatrixCoords.forEach(vector2 -> matrix.setElementAtIndex((int) vector2.x, (int) vector2.y, ElementType.EMPTYCELL.createElementByMatrix(0, 0)));
+        } else if (elementType.pool != null && ElementPool.enabled) {
+            elementType.pool.release(this);
         }
     }
 
@@ -266,7 +374,7 @@ public abstract class Element {
     }
 
     public boolean hasNotMovedBeyondThreshold() {
-        return stoppedMovingCount >= stoppedMovingThreshold;
+        return stoppedMovingCount >= getStoppedMovingThreshold();
     }
 
     public void takeEffectsDamage(CellularMatrix matrix) {
@@ -280,9 +388,9 @@ public abstract class Element {
     }
 
     public void takeFireDamage(CellularMatrix matrix) {
-        health -= fireDamage;
+        health -= getFireDamage();
         if (isSurrounded(matrix)) {
-            flammabilityResistance = resetFlammabilityResistance;
+            flammabilityResistance = getResetFlammabilityResistance();
         }
         checkIfIgnited();
     }
@@ -293,54 +401,26 @@ public abstract class Element {
 //        return isSurrounded(matrix, elementList);
 //    }
 
-    public boolean stain(Color color) {
-        if (Math.random() > 0.2 || isIgnited) {
+    public boolean stain(int color) {
+        if (WorldRandom.nextDouble() > 0.2 || isIgnited) {
             return false;
         }
-        this.color = color.cpy();
+        this.color = color;
         this.discolored = true;
         return true;
     }
 
     public boolean stain(float r, float g, float b, float a) {
-        if (Math.random() > 0.2 || isIgnited) {
+        if (WorldRandom.nextDouble() > 0.2 || isIgnited) {
             return false;
         }
-        this.color = this.color.cpy();
-        this.color.r += r;
-        this.color.g += g;
-        this.color.b += b;
-        this.color.a += a;
-        if (this.color.r > 1f) {
-            this.color.r = 1f;
-        }
-        if (this.color.g > 1f) {
-            this.color.g = 1f;
-        }
-        if (this.color.b > 1f) {
-            this.color.b = 1f;
-        }
-        if (this.color.a > 1f) {
-            this.color.a = 1f;
-        }
-        if (this.color.r < 0f) {
-            this.color.r = 0f;
-        }
-        if (this.color.g < 0f) {
-            this.color.g = 0f;
-        }
-        if (this.color.b < 0f) {
-            this.color.b = 0f;
-        }
-        if (this.color.a < 0f) {
-            this.color.a = 0f;
-        }
+        this.color = PackedColor.add(this.color, r, g, b, a);
         this.discolored = true;
         return true;
     }
 
     public boolean cleanColor() {
-        if (!discolored || Math.random() > 0.2f) {
+        if (!discolored || WorldRandom.nextDouble() > 0.2f) {
             return false;
         }
         this.color = ColorConstants.getColorForElementType(this.elementType, this.getMatrixX(), this.getMatrixY());
@@ -349,8 +429,8 @@ public abstract class Element {
     }
 
     public boolean explode(CellularMatrix matrix, int strength) {
-        if (explosionResistance < strength) {
-            if (Math.random() > 0.3) {
+        if (getExplosionResistance() < strength) {
+            if (WorldRandom.nextDouble() > 0.3) {
                 dieAndReplace(matrix, ElementType.EXPLOSIONSPARK);
             } else {
                 die(matrix);
@@ -358,17 +438,18 @@ public abstract class Element {
             return true;
         } else {
             darkenColor();
+            matrix.wakeCell(this);
             return false;
         }
     }
 
     public void darkenColor() {
-        this.color = new Color(this.color.r * .85f, this.color.g * .85f, this.color.b * .85f, this.color.a);
+        this.color = PackedColor.scale(this.color, .85f);
         this.discolored = true;
     }
 
     public void darkenColor(float factor) {
-        this.color = new Color(this.color.r * factor, this.color.g * factor, this.color.b * factor, this.color.a);
+        this.color = PackedColor.scale(this.color, factor);
         this.discolored = true;
     }
 
@@ -390,7 +471,7 @@ public abstract class Element {
         Element upNeighbor = matrix.get(getMatrixX(), +getMatrixY() + 1);
         if (upNeighbor != null) {
             if (upNeighbor instanceof EmptyCell) {
-                ElementType elementToSpawn = Math.random() > .1 ? ElementType.SPARK : ElementType.SMOKE;
+                ElementType elementToSpawn = WorldRandom.nextDouble() > .1 ? ElementType.SPARK : ElementType.SMOKE;
 //                ElementType elementToSpawn = ElementType.SPARK;
                 matrix.spawnElementByMatrix(getMatrixX(), getMatrixY() + 1, elementToSpawn);
             }
@@ -404,7 +485,7 @@ public abstract class Element {
     }
 
     public void checkLifeSpan(CellularMatrix matrix) {
-        if (lifeSpan != null) {
+        if (lifeSpan != NO_LIFESPAN) {
             lifeSpan--;
             if (lifeSpan <= 0) {
                 die(matrix);
@@ -413,20 +494,56 @@ public abstract class Element {
     }
 
     public int getRandomInt(int limit) {
-        return (int) (Math.random() * limit);
+        return (int) (WorldRandom.nextDouble() * limit);
     }
 
     public ElementType getEnumType() {
         return ElementType.valueOf(this.getClass().getSimpleName().toUpperCase());
     }
 
+    public int getMass() {
+        return elementType.properties.getMass();
+    }
+
+    public float getFrictionFactor() {
+        return elementType.properties.getFrictionFactor();
+    }
+
+    public float getInertialResistance() {
+        return elementType.properties.getInertialResistance();
+    }
+
+    public int getStoppedMovingThreshold() {
+        return elementType.properties.getStoppedMovingThreshold();
+    }
+
+    public int getResetFlammabilityResistance() {
+        return elementType.properties.getResetFlammabilityResistance();
+    }
+
+    public int getHeatFactor() {
+        return elementType.properties.getHeatFactor();
+    }
+
+    public int getFireDamage() {
+        return elementType.properties.getFireDamage();
+    }
+
+    public int getExplosionResistance() {
+        return elementType.properties.getExplosionResistance();
+    }
+
+    public int getExplosionRadius() {
+        return elementType.properties.getExplosionRadius();
+    }
+
     public void magmatize(CellularMatrix matrix, int damage) {
         this.health -= damage;
         checkIfDead(matrix);
     }
 
     public boolean infect(CellularMatrix matrix) {
-        if (Math.random() > 0.95f) {
+        if (WorldRandom.nextDouble() > 0.95f) {
             this.dieAndReplace(matrix, ElementType.SLIMEMOLD);
             return true;
         }
@@ -434,7 +551,14 @@ public abstract class Element {
     }
 
     public boolean isDead() {
-        return isDead;
+        return dead != 0;
+    }
+
+    /**
+     * Undoes die for an element that is still in the grid, because the writes that replaced it were dropped.
+     */
+    public void revive() {
+        dead = 0;
     }
 
     public int getMatrixY() {
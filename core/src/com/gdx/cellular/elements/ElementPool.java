@@ -0,0 +1,88 @@
+package com.gdx.cellular.elements;
+
+import com.gdx.cellular.CellularMatrix;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Free list of dead elements for one ElementType.
+ *
+ * Stepper threads only ever take from the free list (a CAS on the count) and append
+ * to the dead list (an atomic slot reservation), so neither side allocates or locks.
+ * Dead elements are moved to the free list by recycle, which runs between frames when
+ * nothing is stepping. Waiting for the frame boundary matters: an element that dies
+ * mid step is still used by the rest of that step and by explosions queued this frame.
+ */
+public class ElementPool {
+
+    public static boolean enabled = true;
+    private static final int CAPACITY = 8192;
+
+    private final Element[] free = new Element[CAPACITY];
+    private final AtomicInteger freeCount = new AtomicInteger();
+    private final Element[] dead = new Element[CAPACITY];
+    private final AtomicInteger deadCount = new AtomicInteger();
+
+    public Element obtain() {
+        while (true) {
+            int count = freeCount.get();
+            if (count == 0) {
+                return null;
+            }
+            if (freeCount.compareAndSet(count, count - 1)) {
+                Element element = free[count - 1];
+                free[count - 1] = null;
+                return element;
+            }
+        }
+    }
+
+    public void release(Element element) {
+        int index = deadCount.getAndIncrement();
+        if (index < CAPACITY) {
+            dead[index] = element;
+        }
+    }
+
+    /**
+     * Puts a live element that nothing refers to any more straight on the free list, as when
+     * DirectBufferGrid drops the Elements of a sleeping chunk. Like recycleAll, must not run
+     * while any stepper is active.
+     */
+    public void free(Element element) {
+        int count = freeCount.get();
+        if (count < CAPACITY) {
+            free[count] = element;
+            freeCount.set(count + 1);
+        }
+    }
+
+    private void recycle(CellularMatrix matrix) {
+        int count = Math.min(deadCount.get(), CAPACITY);
+        int freeSize = freeCount.get();
+        for (int i = 0; i < count; i++) {
+            Element element = dead[i];
+            dead[i] = null;
+            if (freeSize < CAPACITY && element.owningBody == null && matrix.get(element.getMatrixX(), element.getMatrixY()) != element) {
+                free[freeSize++] = element;
+            }
+        }
+        freeCount.set(freeSize);
+        deadCount.set(0);
+    }
+
+    public int getFreeCount() {
+        return freeCount.get();
+    }
+
+    /**
+     * Moves this frame's dead elements into the free lists. Must not run while any stepper is active.
+     */
+    public static void recycleAll(CellularMatrix matrix) {
+        for (ElementType elementType : ElementType.values()) {
+            if (elementType.pool != null) {
+                elementType.pool.recycle(matrix);
+            }
+        }
+    }
+}
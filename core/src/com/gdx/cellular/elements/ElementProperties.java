@@ -0,0 +1,131 @@
+package com.gdx.cellular.elements;
+
+/**
+ * Per-type constants shared by every cell of an ElementType.
+ * Cells only keep the state that changes while they are alive; flammabilityResistance
+ * and coolingFactor here are the starting values copied into each new cell.
+ */
+public class ElementProperties {
+
+    private int mass = 0;
+    private float frictionFactor = 0;
+    private float inertialResistance = 0;
+    private int density = 0;
+    private int dispersionRate = 0;
+    private int stoppedMovingThreshold = 1;
+    private int flammabilityResistance = 100;
+    private int resetFlammabilityResistance = 50;
+    private int heatFactor = 10;
+    private int fireDamage = 3;
+    private int coolingFactor = 5;
+    private int explosionResistance = 1;
+    private int explosionRadius = 0;
+
+    ElementProperties mass(int mass) {
+        this.mass = mass;
+        return this;
+    }
+
+    ElementProperties frictionFactor(float frictionFactor) {
+        this.frictionFactor = frictionFactor;
+        return this;
+    }
+
+    ElementProperties inertialResistance(float inertialResistance) {
+        this.inertialResistance = inertialResistance;
+        return this;
+    }
+
+    ElementProperties density(int density) {
+        this.density = density;
+        return this;
+    }
+
+    ElementProperties dispersionRate(int dispersionRate) {
+        this.dispersionRate = dispersionRate;
+        return this;
+    }
+
+    ElementProperties stoppedMovingThreshold(int stoppedMovingThreshold) {
+        this.stoppedMovingThreshold = stoppedMovingThreshold;
+        return this;
+    }
+
+    ElementProperties flammabilityResistance(int flammabilityResistance, int resetFlammabilityResistance) {
+        this.flammabilityResistance = flammabilityResistance;
+        this.resetFlammabilityResistance = resetFlammabilityResistance;
+        return this;
+    }
+
+    ElementProperties flammabilityResistance(int flammabilityResistance) {
+        this.flammabilityResistance = flammabilityResistance;
+        return this;
+    }
+
+    ElementProperties fireDamage(int fireDamage) {
+        this.fireDamage = fireDamage;
+        return this;
+    }
+
+    ElementProperties explosionResistance(int explosionResistance) {
+        this.explosionResistance = explosionResistance;
+        return this;
+    }
+
+    ElementProperties explosionRadius(int explosionRadius) {
+        this.explosionRadius = explosionRadius;
+        return this;
+    }
+
+    public int getMass() {
+        return mass;
+    }
+
+    public float getFrictionFactor() {
+        return frictionFactor;
+    }
+
+    public float getInertialResistance() {
+        return inertialResistance;
+    }
+
+    public int getDensity() {
+        return density;
+    }
+
+    public int getDispersionRate() {
+        return dispersionRate;
+    }
+
+    public int getStoppedMovingThreshold() {
+        return stoppedMovingThreshold;
+    }
+
+    public int getFlammabilityResistance() {
+        return flammabilityResistance;
+    }
+
+    public int getResetFlammabilityResistance() {
+        return resetFlammabilityResistance;
+    }
+
+    public int getHeatFactor() {
+        return heatFactor;
+    }
+
+    public int getFireDamage() {
+        return fireDamage;
+    }
+
+    public int getCoolingFactor() {
+        return coolingFactor;
+    }
+
+    public int getExplosionResistance() {
+        return explosionResistance;
+    }
+
+    public int getExplosionRadius() {
+        return explosionRadius;
+    }
+}
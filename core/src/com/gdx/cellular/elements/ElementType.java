@@ -1,6 +1,5 @@
 package com.gdx.cellular.elements;
 
-import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.math.Vector3;
 import com.gdx.cellular.CellularMatrix;
 import com.gdx.cellular.boids.Boid;
@@ -15,163 +14,163 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 public enum ElementType {
-    EMPTYCELL(EmptyCell.class, ClassType.EMPTYCELL) {
+    EMPTYCELL(EmptyCell.class, ClassType.EMPTYCELL, new ElementProperties()) {
         @Override
         public Element createElementByMatrix(int x, int y) {
             return EmptyCell.getInstance();
         }
     },
-    GROUND(Ground.class, ClassType.IMMOVABLESOLID) {
+    GROUND(Ground.class, ClassType.IMMOVABLESOLID, new ElementProperties().mass(200).frictionFactor(.5f).inertialResistance(1.1f)) {
         @Override
-        public Element createElementByMatrix(int x, int y) {
+        protected Element newElement(int x, int y) {
             return new Ground(x, y);
         }
     },
-    STONE(Stone.class, ClassType.IMMOVABLESOLID) {
+    STONE(Stone.class, ClassType.IMMOVABLESOLID, new ElementProperties().mass(500).frictionFactor(.5f).inertialResistance(1.1f).explosionResistance(4)) {
         @Override
-        public Element createElementByMatrix(int x, int y) {
+        protected Element newElement(int x, int y) {
             return new Stone(x, y);
         }
     },
-    BRICK(Brick.class, ClassType.IMMOVABLESOLID) {
+    BRICK(Brick.class, ClassType.IMMOVABLESOLID, new ElementProperties().mass(500).frictionFactor(.5f).inertialResistance(1.1f).explosionResistance(4)) {
         @Override
-        public Element createElementByMatrix(int x, int y) {
+        protected Element newElement(int x, int y) {
             return new Brick(x, y);
         }
     },
-    SAND(Sand.class, ClassType.MOVABLESOLID) {
+    SAND(Sand.class, ClassType.MOVABLESOLID, new ElementProperties().mass(150).frictionFactor(.9f).inertialResistance(.1f).stoppedMovingThreshold(5)) {
         @Override
-        public Element createElementByMatrix(int x, int y) {
+        protected Element newElement(int x, int y) {
             return new Sand(x, y);
         }
     },
-    SNOW(Snow.class, ClassType.MOVABLESOLID) {
+    SNOW(Snow.class, ClassType.MOVABLESOLID, new ElementProperties().mass(200).frictionFactor(.4f).inertialResistance(.8f).stoppedMovingThreshold(5).flammabilityResistance(100, 35)) {
         @Override
-        public Element createElementByMatrix(int x, int y) {
+        protected Element newElement(int x, int y) {
             return new Snow(x, y);
         }
     },
-    DIRT(Dirt.class, ClassType.MOVABLESOLID) {
+    DIRT(Dirt.class, ClassType.MOVABLESOLID, new ElementProperties().mass(200).frictionFactor(.6f).inertialResistance(.8f).stoppedMovingThreshold(5)) {
         @Override
-        public Element createElementByMatrix(int x, int y) {
+        protected Element newElement(int x, int y) {
             return new Dirt(x, y);
         }
     },
-    GUNPOWDER(Gunpowder.class, ClassType.MOVABLESOLID) {
+    GUNPOWDER(Gunpowder.class, ClassType.MOVABLESOLID, new ElementProperties().mass(200).frictionFactor(.4f).inertialResistance(.8f).stoppedMovingThreshold(5).flammabilityResistance(10, 35).explosionRadius(15)) {
         @Override
-        public Element createElementByMatrix(int x, int y) {
+        protected Element newElement(int x, int y) {
             return new Gunpowder(x, y);
         }
     },
-    WATER(Water.class, ClassType.LIQUID) {
+    WATER(Water.class, ClassType.LIQUID, new ElementProperties().mass(100).frictionFactor(1f).density(5).dispersionRate(5).stoppedMovingThreshold(10).explosionResistance(0)) {
         @Override
-        public Element createElementByMatrix(int x, int y) {
+        protected Element newElement(int x, int y) {
             return new Water(x, y);
         }
     },
-    CEMENT(Cement.class, ClassType.LIQUID) {
+    CEMENT(Cement.class, ClassType.LIQUID, new ElementProperties().mass(100).frictionFactor(1f).density(9).dispersionRate(1).stoppedMovingThreshold(900)) {
         @Override
-        public Element createElementByMatrix(int x, int y) {
+        protected Element newElement(int x, int y) {
             return new Cement(x, y);
         }
     },
-    OIL(Oil.class, ClassType.LIQUID) {
+    OIL(Oil.class, ClassType.LIQUID, new ElementProperties().mass(75).frictionFactor(1f).density(4).dispersionRate(4).stoppedMovingThreshold(10).flammabilityResistance(5, 2).fireDamage(10)) {
         @Override
-        public Element createElementByMatrix(int x, int y) {
+        protected Element newElement(int x, int y) {
             return new Oil(x, y);
         }
     },
-    ACID(Acid.class, ClassType.LIQUID) {
+    ACID(Acid.class, ClassType.LIQUID, new ElementProperties().mass(50).frictionFactor(1f).density(2).dispersionRate(2).stoppedMovingThreshold(10)) {
         @Override
-        public Element createElementByMatrix(int x, int y) {
+        protected Element newElement(int x, int y) {
             return new Acid(x, y);
         }
     },
-    WOOD(Wood.class, ClassType.IMMOVABLESOLID) {
+    WOOD(Wood.class, ClassType.IMMOVABLESOLID, new ElementProperties().mass(500).frictionFactor(.5f).inertialResistance(1.1f).flammabilityResistance(40, 25)) {
         @Override
-        public Element createElementByMatrix(int x, int y) {
+        protected Element newElement(int x, int y) {
             return new Wood(x, y);
         }
     },
-    TITANIUM(Titanium.class, ClassType.IMMOVABLESOLID) {
+    TITANIUM(Titanium.class, ClassType.IMMOVABLESOLID, new ElementProperties().mass(1000).frictionFactor(.5f).inertialResistance(1.1f).explosionResistance(5)) {
         @Override
-        public Element createElementByMatrix(int x, int y) {
+        protected Element newElement(int x, int y) {
             return new Titanium(x, y);
         }
     },
-    SPARK(Spark.class, ClassType.GAS) {
+    SPARK(Spark.class, ClassType.GAS, new ElementProperties().mass(10).frictionFactor(1f).density(4).dispersionRate(4).flammabilityResistance(25)) {
         @Override
-        public Element createElementByMatrix(int x, int y) {
+        protected Element newElement(int x, int y) {
             return new Spark(x, y);
         }
     },
-    EXPLOSIONSPARK(ExplosionSpark.class, ClassType.GAS) {
+    EXPLOSIONSPARK(ExplosionSpark.class, ClassType.GAS, new ElementProperties().mass(10).frictionFactor(1f).density(4).dispersionRate(4).flammabilityResistance(25)) {
         @Override
-        public Element createElementByMatrix(int x, int y) {
+        protected Element newElement(int x, int y) {
             return new ExplosionSpark(x, y);
         }
     },
-    EMBER(Ember.class, ClassType.MOVABLESOLID) {
+    EMBER(Ember.class, ClassType.MOVABLESOLID, new ElementProperties().mass(200).frictionFactor(.9f).inertialResistance(.99f).stoppedMovingThreshold(5).flammabilityResistance(0, 20)) {
         @Override
-        public Element createElementByMatrix(int x, int y) {
+        protected Element newElement(int x, int y) {
             return new Ember(x, y);
         }
     },
-    LAVA(Lava.class, ClassType.LIQUID) {
+    LAVA(Lava.class, ClassType.LIQUID, new ElementProperties().mass(100).frictionFactor(1f).density(10).dispersionRate(1).stoppedMovingThreshold(10)) {
         @Override
-        public Element createElementByMatrix(int x, int y) {
+        protected Element newElement(int x, int y) {
             return new Lava(x, y);
         }
     },
-    COAL(Coal.class, ClassType.MOVABLESOLID) {
+    COAL(Coal.class, ClassType.MOVABLESOLID, new ElementProperties().mass(200).frictionFactor(.4f).inertialResistance(.8f).stoppedMovingThreshold(5).flammabilityResistance(100, 35)) {
         @Override
-        public Element createElementByMatrix(int x, int y) {
+        protected Element newElement(int x, int y) {
             return new Coal(x, y);
         }
     },
-    SMOKE(Smoke.class, ClassType.GAS) {
+    SMOKE(Smoke.class, ClassType.GAS, new ElementProperties().mass(1).frictionFactor(1f).density(3).dispersionRate(2)) {
         @Override
-        public Element createElementByMatrix(int x, int y) {
+        protected Element newElement(int x, int y) {
             return new Smoke(x, y);
         }
     },
-    FLAMMABLEGAS(FlammableGas.class, ClassType.GAS) {
+    FLAMMABLEGAS(FlammableGas.class, ClassType.GAS, new ElementProperties().mass(1).frictionFactor(1f).density(1).dispersionRate(2).flammabilityResistance(10, 10)) {
         @Override
-        public Element createElementByMatrix(int x, int y) {
+        protected Element newElement(int x, int y) {
             return new FlammableGas(x, y);
         }
     },
-    BLOOD(Blood.class, ClassType.LIQUID) {
+    BLOOD(Blood.class, ClassType.LIQUID, new ElementProperties().mass(100).frictionFactor(1f).density(6).dispersionRate(5).stoppedMovingThreshold(10)) {
         @Override
-        public Element createElementByMatrix(int x, int y) {
+        protected Element newElement(int x, int y) {
             return new Blood(x, y);
         }
     },
-    SLIMEMOLD(SlimeMold.class, ClassType.IMMOVABLESOLID) {
+    SLIMEMOLD(SlimeMold.class, ClassType.IMMOVABLESOLID, new ElementProperties().mass(500).frictionFactor(.5f).inertialResistance(1.1f).flammabilityResistance(10, 0)) {
         @Override
-        public Element createElementByMatrix(int x, int y) {
+        protected Element newElement(int x, int y) {
             return new SlimeMold(x, y);
         }
     },
-    STEAM(Steam.class, ClassType.GAS) {
+    STEAM(Steam.class, ClassType.GAS, new ElementProperties().mass(1).frictionFactor(1f).density(5).dispersionRate(2)) {
         @Override
-        public Element createElementByMatrix(int x, int y) {
+        protected Element newElement(int x, int y) {
             return new Steam(x, y);
         }
     },
-    PLAYERMEAT(PlayerMeat.class, ClassType.PLAYER) {
+    PLAYERMEAT(PlayerMeat.class, ClassType.PLAYER, new ElementProperties().mass(200).frictionFactor(.5f).inertialResistance(1.1f).flammabilityResistance(100, 100)) {
         @Override
-        public Element createElementByMatrix(int x, int y) {
+        protected Element newElement(int x, int y) {
             return new PlayerMeat(x, y);
         }
     },
-    PARTICLE(Particle.class, ClassType.PARTICLE) {
+    PARTICLE(Particle.class, ClassType.PARTICLE, new ElementProperties()) {
         @Override
         public Element createElementByMatrix(int x, int y) {
             throw new IllegalStateException();
         }
     },
-    BOID(Boid.class, ClassType.PARTICLE) {
+    BOID(Boid.class, ClassType.PARTICLE, new ElementProperties()) {
         @Override
         public Element createElementByMatrix(int x, int y) {
             throw new IllegalStateException();
@@ -180,20 +179,42 @@ public enum ElementType {
 
     public final Class<? extends Element> clazz;
     public final ClassType classType;
+    public final ElementProperties properties;
+    public final ElementPool pool;
     public static List<ElementType> IMMOVABLE_SOLIDS;
     public static List<ElementType> MOVABLE_SOLIDS;
     public static List<ElementType> SOLIDS;
     public static List<ElementType> LIQUIDS;
     public static List<ElementType> GASSES;
 
-    ElementType(Class<? extends Element> clazz, ClassType classType) {
+    ElementType(Class<? extends Element> clazz, ClassType classType, ElementProperties properties) {
         this.clazz = clazz;
         this.classType = classType;
+        this.properties = properties;
+        this.pool = isPooled(classType) ? new ElementPool() : null;
+    }
+
+    public Element createElementByMatrix(int x, int y) {
+        if (pool != null && ElementPool.enabled) {
+            Element recycled = pool.obtain();
+            if (recycled != null) {
+                recycled.reset(x, y);
+                return recycled;
+            }
+        }
+        return newElement(x, y);
     }
 
-    public abstract Element createElementByMatrix(int x, int y);
+    protected Element newElement(int x, int y) {
+        throw new IllegalStateException("Element type " + this + " must override createElementByMatrix");
+    }
+
+    private static boolean isPooled(ClassType classType) {
+        return classType == ClassType.MOVABLESOLID || classType == ClassType.IMMOVABLESOLID
+                || classType == ClassType.LIQUID || classType == ClassType.GAS;
+    }
 
-    public static Element createParticleByMatrix(CellularMatrix matrix, int x, int y, Vector3 vector3, ElementType elementType, Color color, boolean isIgnited) {
+    public static Element createParticleByMatrix(CellularMatrix matrix, int x, int y, Vector3 vector3, ElementType elementType, int color, boolean isIgnited) {
         if (matrix.isWithinBounds(x, y)) {
             Element newElement = new Particle(x, y, vector3, elementType, color, isIgnited);
             matrix.setElementAtIndex(x, y, newElement);
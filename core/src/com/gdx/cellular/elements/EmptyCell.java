@@ -1,6 +1,5 @@
 package com.gdx.cellular.elements;
 
-import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
 import com.gdx.cellular.CellularMatrix;
@@ -24,6 +23,11 @@ public class EmptyCell extends Element {
 
     }
 
+    @Override
+    public boolean canSleep() {
+        return true;
+    }
+
     @Override
     protected boolean actOnNeighboringElement(Element neighbor, int modifiedMatrixX, int modifiedMatrixY, CellularMatrix matrix, boolean isFinal, boolean isFirst, Vector3 lastValidLocation, int depth) {
         return true;
@@ -71,7 +75,7 @@ public class EmptyCell extends Element {
     }
 
     @Override
-    public boolean stain(Color color) {
+    public boolean stain(int color) {
         return  false;
     }
 
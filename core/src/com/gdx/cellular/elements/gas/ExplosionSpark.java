@@ -13,12 +13,15 @@ public class ExplosionSpark extends Gas {
     public ExplosionSpark(int x, int y) {
         super(x, y);
         vel = new Vector3(0,64f,0);
-        inertialResistance = 0;
-        mass = 10;
-        frictionFactor = 1f;
-        density = 4;
-        dispersionRate = 4;
-        flammabilityResistance = 25;
+        isIgnited = true;
+        lifeSpan = getRandomInt(20);
+        temperature = 3;
+    }
+
+    @Override
+    public void reset(int x, int y) {
+        super.reset(x, y);
+        vel.set(0, 64f, 0);
         isIgnited = true;
         lifeSpan = getRandomInt(20);
         temperature = 3;
@@ -46,7 +49,7 @@ public class ExplosionSpark extends Gas {
             neighbor.die(matrix);
             return false;
         } else if (neighbor instanceof Liquid || neighbor instanceof Solid || neighbor instanceof Gas) {
-            neighbor.receiveHeat(matrix, heatFactor);
+            neighbor.receiveHeat(matrix, getHeatFactor());
             die(matrix);
             return true;
         }
@@ -9,13 +9,14 @@ public class FlammableGas extends Gas {
         super(x, y);
         health = 100;
         vel = new Vector3(0,124f,0);
-        inertialResistance = 0;
-        mass = 1;
-        frictionFactor = 1f;
-        density = 1;
-        dispersionRate = 2;
         lifeSpan = getRandomInt(500) + 3000;
-        flammabilityResistance = 10;
-        resetFlammabilityResistance = 10;
+    }
+
+    @Override
+    public void reset(int x, int y) {
+        super.reset(x, y);
+        health = 100;
+        vel.set(0, 124f, 0);
+        lifeSpan = getRandomInt(500) + 3000;
     }
 }
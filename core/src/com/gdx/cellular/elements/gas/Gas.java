@@ -1,6 +1,5 @@
 package com.gdx.cellular.elements.gas;
 
-import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.math.Vector3;
 import com.gdx.cellular.CellularAutomaton;
 import com.gdx.cellular.CellularMatrix;
@@ -10,16 +9,29 @@ import com.gdx.cellular.elements.EmptyCell;
 import com.gdx.cellular.elements.solid.Solid;
 import com.gdx.cellular.elements.liquid.Liquid;
 import com.gdx.cellular.particles.Particle;
+import com.gdx.cellular.util.WorldRandom;
 
 public abstract class Gas extends Element {
 
-    public int density;
-    public int dispersionRate;
 
     public Gas(int x, int y) {
         super(x, y);
     }
 
+    public int getDensity() {
+        return elementType.properties.getDensity();
+    }
+
+    public int getDispersionRate() {
+        return elementType.properties.getDispersionRate();
+    }
+
+    @Override
+    public int getStepReach() {
+        // A blocked step spreads sideways by up to dispersionRate + 2.
+        return super.getStepReach() + getDispersionRate() + 2;
+    }
+
     @Override
     public void spawnSparkIfIgnited(CellularMatrix matrix) {}
 
@@ -36,15 +48,14 @@ public abstract class Gas extends Element {
 
     @Override
     public void step(CellularMatrix matrix) {
-        if (stepped.get(0) == CellularAutomaton.stepped.get(0)) return;
-        stepped.flip(0);
+        if (!markStepped()) return;
         vel.sub(CellularAutomaton.gravity);
         vel.y = Math.min(vel.y, 124);
-        if (vel.y == 124 && Math.random() > .7) {
+        if (vel.y == 124 && WorldRandom.nextDouble() > .7) {
             vel.y = 64;
         }
         vel.x *= .9;
-//        if (vel.x == 0 && Math.random() > .8) {
+//        if (vel.x == 0 && WorldRandom.nextDouble() > .8) {
 //            vel.x = 64;
 //        }
 
@@ -154,7 +165,7 @@ public abstract class Gas extends Element {
             int additionalX = getAdditional(normalizedVel.x);
             int additionalY = getAdditional(normalizedVel.y);
 
-            int distance = additionalX * (Math.random() > 0.5 ? dispersionRate + 2 : dispersionRate - 1);
+            int distance = additionalX * (WorldRandom.nextDouble() > 0.5 ? getDispersionRate() + 2 : getDispersionRate() - 1);
 
             Element diagonalNeighbor = matrix.get(getMatrixX() + additionalX, getMatrixY() + additionalY);
             if (isFirst) {
@@ -163,8 +174,8 @@ public abstract class Gas extends Element {
                 vel.y = 124;
             }
 
-            neighbor.vel.y = vel.y;
-            vel.x *= frictionFactor;
+            neighbor.setVelocityY(vel.y);
+            vel.x *= getFrictionFactor();
             if (diagonalNeighbor != null) {
                 boolean stoppedDiagonally = iterateToAdditional(matrix, getMatrixX() + additionalX, getMatrixY(), distance);
                 if (!stoppedDiagonally) {
@@ -201,7 +212,7 @@ public abstract class Gas extends Element {
             int additionalX = getAdditional(normalizedVel.x);
             int additionalY = getAdditional(normalizedVel.y);
 
-            int distance = additionalX * (Math.random() > 0.5 ? dispersionRate + 2 : dispersionRate - 1);
+            int distance = additionalX * (WorldRandom.nextDouble() > 0.5 ? getDispersionRate() + 2 : getDispersionRate() - 1);
 
             Element diagonalNeighbor = matrix.get(getMatrixX() + additionalX, getMatrixY() + additionalY);
             if (isFirst) {
@@ -210,8 +221,8 @@ public abstract class Gas extends Element {
                 vel.y = 124;
             }
 
-            neighbor.vel.y = vel.y;
-            vel.x *= frictionFactor;
+            neighbor.setVelocityY(vel.y);
+            vel.x *= getFrictionFactor();
             if (diagonalNeighbor != null) {
                 boolean stoppedDiagonally = iterateToAdditional(matrix, getMatrixX() + additionalX, getMatrixY(), distance);
                 if (!stoppedDiagonally) {
@@ -249,7 +260,7 @@ public abstract class Gas extends Element {
             int additionalX = getAdditional(normalizedVel.x);
             int additionalY = getAdditional(normalizedVel.y);
 
-            int distance = additionalX * (Math.random() > 0.5 ? dispersionRate + 2 : dispersionRate - 1);
+            int distance = additionalX * (WorldRandom.nextDouble() > 0.5 ? getDispersionRate() + 2 : getDispersionRate() - 1);
 
             Element diagonalNeighbor = matrix.get(getMatrixX() + additionalX, getMatrixY() + additionalY);
             if (isFirst) {
@@ -258,8 +269,8 @@ public abstract class Gas extends Element {
                 vel.y = 124;
             }
 
-            neighbor.vel.y = vel.y;
-            vel.x *= frictionFactor;
+            neighbor.setVelocityY(vel.y);
+            vel.x *= getFrictionFactor();
             if (diagonalNeighbor != null) {
                 boolean stoppedDiagonally = iterateToAdditional(matrix, getMatrixX() + additionalX, getMatrixY() + additionalY, distance);
                 if (!stoppedDiagonally) {
@@ -323,7 +334,7 @@ public abstract class Gas extends Element {
     }
 
     private boolean compareGasDensities(Gas neighbor) {
-        return (density > neighbor.density && neighbor.getMatrixY() <= getMatrixY()); // ||  (density < neighbor.density && neighbor.matrixY >= matrixY);
+        return (getDensity() > neighbor.getDensity() && neighbor.getMatrixY() <= getMatrixY()); // ||  (density < neighbor.density && neighbor.matrixY >= matrixY);
     }
 
     private int getAdditional(float val) {
@@ -359,7 +370,7 @@ public abstract class Gas extends Element {
     }
 
     @Override
-    public boolean stain(Color color) {
+    public boolean stain(int color) {
         return  false;
     }
 }
@@ -8,11 +8,13 @@ public class Smoke extends Gas{
     public Smoke(int x, int y) {
         super(x, y);
         vel = new Vector3(0,124f,0);
-        inertialResistance = 0;
-        mass = 1;
-        frictionFactor = 1f;
-        density = 3;
-        dispersionRate = 2;
+        lifeSpan = getRandomInt(250) + 450;
+    }
+
+    @Override
+    public void reset(int x, int y) {
+        super.reset(x, y);
+        vel.set(0, 124f, 0);
         lifeSpan = getRandomInt(250) + 450;
     }
 
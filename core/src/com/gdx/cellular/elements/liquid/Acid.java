@@ -11,16 +11,29 @@ public class Acid extends Liquid {
     public Acid(int x, int y) {
         super(x, y);
         vel = new Vector3(0,-124f,0);
-        inertialResistance = 0;
-        mass = 50;
-        frictionFactor = 1f;
-        density = 2;
-        dispersionRate = 2;
+    }
+
+    @Override
+    public void reset(int x, int y) {
+        super.reset(x, y);
+        vel.set(0, -124f, 0);
+        corrosionCount = 3;
+    }
+
+    @Override
+    public boolean canSleep() {
+        return false;
+    }
+
+    @Override
+    public boolean canRebuildFromRecord() {
+        return super.canRebuildFromRecord() && corrosionCount == 3;
     }
 
     @Override
     public boolean actOnOther(Element other, CellularMatrix matrix) {
         other.stain(-1, 1, -1, 0);
+        matrix.wakeCell(other);
         if (!isReactionFrame() || other == null) return false;
         boolean corroded = other.corrode(matrix);
         if (corroded) corrosionCount -= 1;
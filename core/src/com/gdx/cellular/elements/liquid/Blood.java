@@ -1,21 +1,23 @@
 package com.gdx.cellular.elements.liquid;
 
-import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.math.Vector3;
 import com.gdx.cellular.CellularMatrix;
 import com.gdx.cellular.elements.Element;
+import com.gdx.cellular.util.PackedColor;
 
 public class Blood extends Liquid {
 
+    private static final int STAIN_COLOR = PackedColor.rgba(0.5f, 0, 0, 1);
+
     public Blood(int x, int y) {
         super(x, y);
         vel = new Vector3(0,-124f,0);
-        inertialResistance = 0;
-        mass = 100;
-        frictionFactor = 1f;
-        density = 6;
-        dispersionRate = 5;
-        coolingFactor = 5;
+    }
+
+    @Override
+    public void reset(int x, int y) {
+        super.reset(x, y);
+        vel.set(0, -124f, 0);
     }
 
     @Override
@@ -25,7 +27,8 @@ public class Blood extends Liquid {
 
     @Override
     public boolean actOnOther(Element other, CellularMatrix matrix) {
-        other.stain(new Color(0.5f, 0, 0, 1));
+        other.stain(STAIN_COLOR);
+        matrix.wakeCell(other);
         if (other.shouldApplyHeat()) {
             other.receiveCooling(matrix, coolingFactor);
             coolingFactor--;
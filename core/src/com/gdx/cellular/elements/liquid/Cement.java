@@ -10,19 +10,18 @@ public class Cement extends Liquid {
     public Cement(int x, int y) {
         super(x, y);
         vel = new Vector3(0,-124f,0);
-        inertialResistance = 0;
-        mass = 100;
-        frictionFactor = 1f;
-        density = 9;
-        dispersionRate = 1;
-        coolingFactor = 5;
-        stoppedMovingThreshold = 900;
+    }
+
+    @Override
+    public void reset(int x, int y) {
+        super.reset(x, y);
+        vel.set(0, -124f, 0);
     }
 
     @Override
     public void step(CellularMatrix matrix) {
         super.step(matrix);
-        if (stoppedMovingCount >= stoppedMovingThreshold) {
+        if (stoppedMovingCount >= getStoppedMovingThreshold()) {
             dieAndReplace(matrix, ElementType.STONE);
         }
     }
@@ -4,6 +4,7 @@ import com.badlogic.gdx.math.Vector3;
 import com.gdx.cellular.CellularMatrix;
 import com.gdx.cellular.elements.Element;
 import com.gdx.cellular.elements.ElementType;
+import com.gdx.cellular.util.WorldRandom;
 
 public class Lava extends Liquid {
 
@@ -12,14 +13,24 @@ public class Lava extends Liquid {
     public Lava(int x, int y) {
         super(x, y);
         vel = new Vector3(0,-124f,0);
-        inertialResistance = 0;
-        mass = 100;
-        frictionFactor = 1f;
-        density = 10;
-        dispersionRate = 1;
         temperature = 10;
         heated = true;
-        magmatizeDamage = (int) (Math.random() * 10);
+        magmatizeDamage = (int) (WorldRandom.nextDouble() * 10);
+    }
+
+    @Override
+    public void reset(int x, int y) {
+        super.reset(x, y);
+        vel.set(0, -124f, 0);
+        temperature = 10;
+        heated = true;
+        magmatizeDamage = (int) (WorldRandom.nextDouble() * 10);
+    }
+
+    // A rebuilt element would roll a new magmatizeDamage.
+    @Override
+    public boolean canRebuildFromRecord() {
+        return false;
     }
 
     @Override
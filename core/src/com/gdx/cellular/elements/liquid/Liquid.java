@@ -1,6 +1,5 @@
 package com.gdx.cellular.elements.liquid;
 
-import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.math.Vector3;
 import com.gdx.cellular.CellularAutomaton;
 import com.gdx.cellular.CellularMatrix;
@@ -10,22 +9,44 @@ import com.gdx.cellular.elements.EmptyCell;
 import com.gdx.cellular.elements.gas.Gas;
 import com.gdx.cellular.elements.solid.Solid;
 import com.gdx.cellular.particles.Particle;
+import com.gdx.cellular.util.WorldRandom;
 
 public abstract class Liquid extends Element {
 
-    public int density;
-    public int dispersionRate;
     public int yDidNotChangeCount = 0;
     public int yDidNotChangeThreshold = 200;
 
     public Liquid(int x, int y) {
         super(x, y);
-        stoppedMovingThreshold = 10;
+    }
+
+    @Override
+    public void reset(int x, int y) {
+        super.reset(x, y);
+        yDidNotChangeCount = 0;
+    }
+
+    @Override
+    public boolean canSleep() {
+        return isQuiet() && hasNotMovedBeyondThreshold();
+    }
+
+    public int getDensity() {
+        return elementType.properties.getDensity();
+    }
+
+    public int getDispersionRate() {
+        return elementType.properties.getDispersionRate();
+    }
+
+    @Override
+    public int getStepReach() {
+        // A blocked step spreads sideways by up to dispersionRate + 2.
+        return super.getStepReach() + getDispersionRate() + 2;
     }
 
     public void step(CellularMatrix matrix) {
-        if (stepped.get(0) == CellularAutomaton.stepped.get(0)) return;
-        stepped.flip(0);
+        if (!markStepped()) return;
 
         if (matrix.useChunks && !matrix.shouldElementInChunkStep(this)) {
             return;
@@ -106,8 +127,8 @@ public abstract class Liquid extends Element {
         checkLifeSpan(matrix);
         takeEffectsDamage(matrix);
         stoppedMovingCount = didNotMove(formerLocation) ? stoppedMovingCount + 1 : 0;
-        if (stoppedMovingCount > stoppedMovingThreshold) {
-            stoppedMovingCount = stoppedMovingThreshold;
+        if (stoppedMovingCount > getStoppedMovingThreshold()) {
+            stoppedMovingCount = getStoppedMovingThreshold();
         }
         if (matrix.useChunks)  {
             if (isIgnited || !hasNotMovedBeyondThreshold()) {
@@ -168,13 +189,13 @@ public abstract class Liquid extends Element {
                 vel.x = vel.x < 0 ? -absY : absY;
             }
 //            if (yHasNotMovedBeyondThreshold()) {
-//                vel.x = Math.random() > 0.5 ? 64 : -64;
+//                vel.x = WorldRandom.nextDouble() > 0.5 ? 64 : -64;
 //            }
             Vector3 normalizedVel = vel.cpy().nor();
             int additionalX = getAdditional(normalizedVel.x);
             int additionalY = getAdditional(normalizedVel.y);
 
-            int distance = additionalX * (Math.random() > 0.5 ? dispersionRate + 2 : dispersionRate - 1);
+            int distance = additionalX * (WorldRandom.nextDouble() > 0.5 ? getDispersionRate() + 2 : getDispersionRate() - 1);
 
             Element diagonalNeighbor = matrix.get(getMatrixX() + additionalX, getMatrixY() + additionalY);
             if (isFirst) {
@@ -183,8 +204,8 @@ public abstract class Liquid extends Element {
                 vel.y = -124;
             }
 
-            neighbor.vel.y = vel.y;
-            vel.x *= frictionFactor;
+            neighbor.setVelocityY(vel.y);
+            vel.x *= getFrictionFactor();
             if (diagonalNeighbor != null) {
                 boolean stoppedDiagonally = iterateToAdditional(matrix, getMatrixX() + additionalX, getMatrixY() + additionalY, distance, lastValidLocation);
                 if (!stoppedDiagonally) {
@@ -223,7 +244,7 @@ public abstract class Liquid extends Element {
             int additionalX = getAdditional(normalizedVel.x);
             int additionalY = getAdditional(normalizedVel.y);
 
-            int distance = additionalX * (Math.random() > 0.5 ? dispersionRate + 2 : dispersionRate - 1);
+            int distance = additionalX * (WorldRandom.nextDouble() > 0.5 ? getDispersionRate() + 2 : getDispersionRate() - 1);
 
             Element diagonalNeighbor = matrix.get(getMatrixX() + additionalX, getMatrixY() + additionalY);
             if (isFirst) {
@@ -232,8 +253,8 @@ public abstract class Liquid extends Element {
                 vel.y = -124;
             }
 
-            neighbor.vel.y = vel.y;
-            vel.x *= frictionFactor;
+            neighbor.setVelocityY(vel.y);
+            vel.x *= getFrictionFactor();
             if (diagonalNeighbor != null) {
                 boolean stoppedDiagonally = iterateToAdditional(matrix, getMatrixX() + additionalX, getMatrixY() + additionalY, distance, lastValidLocation);
                 if (!stoppedDiagonally) {
@@ -307,14 +328,14 @@ public abstract class Liquid extends Element {
 
     private void swapLiquidForDensities(CellularMatrix matrix, Liquid neighbor, int neighborX, int neighborY, Vector3 lastValidLocation) {
         vel.y = -62;
-        if (Math.random() > 0.8f) {
+        if (WorldRandom.nextDouble() > 0.8f) {
             vel.x *= -1;
         }
         moveToLastValidAndSwap(matrix, neighbor, neighborX, neighborY, lastValidLocation);
     }
 
     private boolean compareDensities(Liquid neighbor) {
-        return (density > neighbor.density && neighbor.getMatrixY() <= getMatrixY()); // ||  (density < neighbor.density && neighbor.matrixY >= matrixY);
+        return (getDensity() > neighbor.getDensity() && neighbor.getMatrixY() <= getMatrixY()); // ||  (density < neighbor.density && neighbor.matrixY >= matrixY);
     }
 
     private void setAdjacentNeighborsFreeFalling(CellularMatrix matrix, int depth, Vector3 lastValidLocation) {
@@ -338,7 +359,7 @@ public abstract class Liquid extends Element {
     }
 
     private boolean setElementFreeFalling(Element element) {
-        element.isFreeFalling = Math.random() > element.inertialResistance || element.isFreeFalling;
+        element.isFreeFalling = WorldRandom.nextDouble() > element.getInertialResistance() || element.isFreeFalling;
         return element.isFreeFalling;
     }
 
@@ -383,7 +404,7 @@ public abstract class Liquid extends Element {
     }
 
     @Override
-    public boolean stain(Color color) {
+    public boolean stain(int color) {
         return  false;
     }
 }
@@ -8,14 +8,14 @@ public class Oil extends Liquid {
     public Oil(int x, int y) {
         super(x, y);
         vel = new Vector3(0,-124f,0);
-        inertialResistance = 0;
-        mass = 75;
-        frictionFactor = 1f;
-        density = 4;
-        dispersionRate = 4;
-        flammabilityResistance = 5;
-        resetFlammabilityResistance = 2;
-        fireDamage = 10;
+        temperature = 10;
+        health = 1000;
+    }
+
+    @Override
+    public void reset(int x, int y) {
+        super.reset(x, y);
+        vel.set(0, -124f, 0);
         temperature = 10;
         health = 1000;
     }
@@ -10,13 +10,12 @@ public class Water extends Liquid {
     public Water(int x, int y) {
         super(x, y);
         vel = new Vector3(0,-124f,0);
-        inertialResistance = 0;
-        mass = 100;
-        frictionFactor = 1f;
-        density = 5;
-        dispersionRate = 5;
-        coolingFactor = 5;
-        explosionResistance = 0;
+    }
+
+    @Override
+    public void reset(int x, int y) {
+        super.reset(x, y);
+        vel.set(0, -124f, 0);
     }
 
     @Override
@@ -28,6 +27,7 @@ public class Water extends Liquid {
     @Override
     public boolean actOnOther(Element other, CellularMatrix matrix) {
         other.cleanColor();
+        matrix.wakeCell(other);
         if (other.shouldApplyHeat()) {
             other.receiveCooling(matrix, coolingFactor);
             coolingFactor--;
@@ -42,7 +42,7 @@ public class Water extends Liquid {
 
     @Override
     public boolean explode(CellularMatrix matrix, int strength) {
-        if (explosionResistance < strength) {
+        if (getExplosionResistance() < strength) {
             dieAndReplace(matrix, ElementType.STEAM);
             return true;
         } else {
@@ -18,11 +18,6 @@ public class PlayerMeat extends ImmovableSolid {
 
     public PlayerMeat(int x, int y) {
         super(x, y);
-        mass = 200;
-        flammabilityResistance = 100;
-        resetFlammabilityResistance = 100;
-        frictionFactor = 0.5f;
-        inertialResistance = 1.1f;
         vel = new Vector3(0f, 0f,0f);
     }
 
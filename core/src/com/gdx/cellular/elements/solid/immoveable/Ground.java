@@ -1,7 +1,6 @@
 package com.gdx.cellular.elements.solid.immoveable;
 
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.math.Vector3;
 import com.gdx.cellular.CellularMatrix;
 import com.gdx.cellular.elements.ColorConstants;
 import com.gdx.cellular.elements.Element;
@@ -11,10 +10,12 @@ public class Ground extends ImmovableSolid{
 
     public Ground(int x, int y) {
         super(x, y);
-        vel = new Vector3(0f, 0f,0f);
-        frictionFactor = 0.5f;
-        inertialResistance = 1.1f;
-        mass = 200;
+        health = 250;
+    }
+
+    @Override
+    public void reset(int x, int y) {
+        super.reset(x, y);
         health = 250;
     }
 
@@ -7,9 +7,20 @@ import com.gdx.cellular.elements.solid.Solid;
 
 public abstract class ImmovableSolid extends Solid {
 
+    // Shared by every immovable cell. Immovables never move, and setVelocityY ignores the speed
+    // that falling neighbours try to hand on, so nothing writes to it.
+    public static final Vector3 ZERO_VELOCITY = new Vector3();
+
     public ImmovableSolid(int x, int y) {
         super(x, y);
         isFreeFalling = false;
+        vel = ZERO_VELOCITY;
+    }
+
+    @Override
+    public void reset(int x, int y) {
+        super.reset(x, y);
+        isFreeFalling = false;
     }
 
 //    @Override
@@ -27,6 +38,14 @@ public abstract class ImmovableSolid extends Solid {
         customElementFunctions(matrix);
     }
 
+    @Override
+    public void setVelocityY(float y) { }
+
+    @Override
+    public boolean canSleep() {
+        return isQuiet();
+    }
+
     @Override
     protected boolean actOnNeighboringElement(Element neighbor, int modifiedMatrixX, int modifiedMatrixY, CellularMatrix matrix, boolean isFinal, boolean isFirst, Vector3 lastValidLocation, int depth) {
         return true;
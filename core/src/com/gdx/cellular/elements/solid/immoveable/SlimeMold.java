@@ -1,6 +1,5 @@
 package com.gdx.cellular.elements.solid.immoveable;
 
-import com.badlogic.gdx.math.Vector3;
 import com.gdx.cellular.CellularMatrix;
 import com.gdx.cellular.effects.EffectColors;
 import com.gdx.cellular.elements.ColorConstants;
@@ -11,12 +10,12 @@ public class SlimeMold extends ImmovableSolid {
 
     public SlimeMold(int x, int y) {
         super(x, y);
-        vel = new Vector3(0f, 0f,0f);
-        frictionFactor = 0.5f;
-        inertialResistance = 1.1f;
-        mass = 500;
-        flammabilityResistance = 10;
-        resetFlammabilityResistance = 0;
+        health = 40;
+    }
+
+    @Override
+    public void reset(int x, int y) {
+        super.reset(x, y);
         health = 40;
     }
 
@@ -26,6 +25,11 @@ public class SlimeMold extends ImmovableSolid {
         infectNeighbors(matrix);
     }
 
+    @Override
+    public boolean canSleep() {
+        return false;
+    }
+
     private boolean infectNeighbors(CellularMatrix matrix) {
         if (!isEffectsFrame() || isIgnited) return false;
         for (int x = getMatrixX() - 1; x <= getMatrixX() + 1; x++) {
@@ -43,7 +47,7 @@ public class SlimeMold extends ImmovableSolid {
 
     @Override
     public void takeFireDamage(CellularMatrix matrix) {
-        health -= fireDamage;
+        health -= getFireDamage();
     }
 
     public boolean infect(CellularMatrix matrix) {
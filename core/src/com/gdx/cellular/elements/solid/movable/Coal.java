@@ -10,11 +10,12 @@ public class Coal extends MovableSolid {
     public Coal(int x, int y) {
         super(x, y);
         vel = new Vector3(0f, -124f,0f);
-        frictionFactor = .4f;
-        inertialResistance = .8f;
-        mass = 200;
-        flammabilityResistance = 100;
-        resetFlammabilityResistance = 35;
+    }
+
+    @Override
+    public void reset(int x, int y) {
+        super.reset(x, y);
+        vel.set(0f, -124f, 0f);
     }
 
     @Override
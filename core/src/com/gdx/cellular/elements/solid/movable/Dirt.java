@@ -8,9 +8,12 @@ public class Dirt extends MovableSolid {
     public Dirt(int x, int y) {
         super(x, y);
         vel = new Vector3(0f, -124f,0f);
-        frictionFactor = .6f;
-        inertialResistance = .8f;
-        mass = 200;
+    }
+
+    @Override
+    public void reset(int x, int y) {
+        super.reset(x, y);
+        vel.set(0f, -124f, 0f);
     }
 
     @Override
@@ -8,14 +8,18 @@ public class Ember extends MovableSolid {
     public Ember(int x, int y) {
         super(x, y);
         vel = new Vector3(0f, -124f,0f);
-        frictionFactor = .9f;
-        inertialResistance = .99f;
-        mass = 200;
         isIgnited = true;
         health = getRandomInt(100) + 250;
         temperature = 5;
-        flammabilityResistance = 0;
-        resetFlammabilityResistance = 20;
+    }
+
+    @Override
+    public void reset(int x, int y) {
+        super.reset(x, y);
+        vel.set(0f, -124f, 0f);
+        isIgnited = true;
+        health = getRandomInt(100) + 250;
+        temperature = 5;
     }
 
     @Override
@@ -11,13 +11,18 @@ public class Gunpowder extends MovableSolid {
     public Gunpowder(int x, int y) {
         super(x, y);
         vel = new Vector3(0f, -124f,0f);
-        frictionFactor = .4f;
-        inertialResistance = .8f;
-        mass = 200;
-        flammabilityResistance = 10;
-        resetFlammabilityResistance = 35;
-        explosionRadius = 15;
-        fireDamage = 3;
+    }
+
+    @Override
+    public void reset(int x, int y) {
+        super.reset(x, y);
+        vel.set(0f, -124f, 0f);
+        ignitedCount = 0;
+    }
+
+    @Override
+    public boolean canRebuildFromRecord() {
+        return super.canRebuildFromRecord() && ignitedCount == 0;
     }
 
     public void step(CellularMatrix matrix) {
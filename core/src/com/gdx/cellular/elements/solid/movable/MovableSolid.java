@@ -10,17 +10,16 @@ import com.gdx.cellular.elements.gas.Gas;
 import com.gdx.cellular.elements.solid.Solid;
 import com.gdx.cellular.elements.liquid.Liquid;
 import com.gdx.cellular.particles.Particle;
+import com.gdx.cellular.util.WorldRandom;
 
 public abstract class MovableSolid extends Solid {
 
     public MovableSolid(int x, int y) {
         super(x, y);
-        stoppedMovingThreshold = 5;
     }
 
     public void step(CellularMatrix matrix) {
-        if (stepped.get(0) == CellularAutomaton.stepped.get(0)) return;
-        stepped.flip(0);
+        if (!markStepped()) return;
         if (this.owningBody != null) {
             stepAsPartOfPhysicsBody(matrix);
             return;
@@ -102,8 +101,8 @@ public abstract class MovableSolid extends Solid {
         checkLifeSpan(matrix);
         modifyColor();
         stoppedMovingCount = didNotMove(formerLocation) && !isIgnited ? stoppedMovingCount + 1 : 0;
-        if (stoppedMovingCount > stoppedMovingThreshold) {
-            stoppedMovingCount = stoppedMovingThreshold;
+        if (stoppedMovingCount > getStoppedMovingThreshold()) {
+            stoppedMovingCount = getStoppedMovingThreshold();
         }
         if (matrix.useChunks) {
             if (isFreeFalling || isIgnited || !hasNotMovedBeyondThreshold()) {
@@ -113,6 +112,11 @@ public abstract class MovableSolid extends Solid {
         }
     }
 
+    @Override
+    public boolean canSleep() {
+        return isQuiet() && !isFreeFalling && hasNotMovedBeyondThreshold();
+    }
+
     private void stepAsPartOfPhysicsBody(CellularMatrix matrix) {
         applyHeatToNeighborsIfIgnited(matrix);
         takeEffectsDamage(matrix);
@@ -162,8 +166,8 @@ public abstract class MovableSolid extends Solid {
                 vel.y = -124;
             }
 
-            neighbor.vel.y = vel.y;
-            vel.x *= frictionFactor * neighbor.frictionFactor;
+            neighbor.setVelocityY(vel.y);
+            vel.x *= getFrictionFactor() * neighbor.getFrictionFactor();
             if (diagonalNeighbor != null) {
                 boolean stoppedDiagonally = actOnNeighboringElement(diagonalNeighbor, getMatrixX() + additionalX, getMatrixY() + additionalY, matrix, true, false, lastValidLocation, depth + 1);
                 if (!stoppedDiagonally) {
@@ -217,7 +221,7 @@ public abstract class MovableSolid extends Solid {
     }
 
     private boolean setElementFreeFalling(Element element) {
-        element.isFreeFalling = Math.random() > element.inertialResistance || element.isFreeFalling;
+        element.isFreeFalling = WorldRandom.nextDouble() > element.getInertialResistance() || element.isFreeFalling;
         return element.isFreeFalling;
     }
 
@@ -2,15 +2,19 @@ package com.gdx.cellular.elements.solid.movable;
 
 import com.badlogic.gdx.math.Vector3;
 import com.gdx.cellular.CellularMatrix;
+import com.gdx.cellular.util.WorldRandom;
 
 public class Sand extends MovableSolid {
 
     public Sand(int x, int y) {
         super(x, y);
-        vel = new Vector3(Math.random() > 0.5 ? -1 : 1, -124f,0f);
-        frictionFactor = 0.9f;
-        inertialResistance = .1f;
-        mass = 150;
+        vel = new Vector3(WorldRandom.nextDouble() > 0.5 ? -1 : 1, -124f,0f);
+    }
+
+    @Override
+    public void reset(int x, int y) {
+        super.reset(x, y);
+        vel.set(WorldRandom.nextDouble() > 0.5 ? -1 : 1, -124f, 0f);
     }
 
     @Override
@@ -3,17 +3,19 @@ package com.gdx.cellular.elements.solid.movable;
 import com.badlogic.gdx.math.Vector3;
 import com.gdx.cellular.CellularMatrix;
 import com.gdx.cellular.elements.ElementType;
+import com.gdx.cellular.util.WorldRandom;
 
 public class Snow extends MovableSolid {
 
     public Snow(int x, int y) {
         super(x, y);
         vel = new Vector3(0f, -62f,0f);
-        frictionFactor = .4f;
-        inertialResistance = .8f;
-        mass = 200;
-        flammabilityResistance = 100;
-        resetFlammabilityResistance = 35;
+    }
+
+    @Override
+    public void reset(int x, int y) {
+        super.reset(x, y);
+        vel.set(0f, -62f, 0f);
     }
 
     @Override
@@ -29,7 +31,7 @@ public class Snow extends MovableSolid {
     public void step(CellularMatrix matrix) {
         super.step(matrix);
         if (vel.y < -62) {
-            vel.y = Math.random() > 0.3 ? -62 : -124;
+            vel.y = WorldRandom.nextDouble() > 0.3 ? -62 : -124;
         }
     }
 
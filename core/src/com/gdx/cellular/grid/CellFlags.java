@@ -0,0 +1,28 @@
+package com.gdx.cellular.grid;
+
+import com.gdx.cellular.elements.Element;
+
+public class CellFlags {
+
+    public static final int IGNITED = 1;
+    public static final int HEATED = 1 << 1;
+    public static final int FREE_FALLING = 1 << 2;
+    public static final int DISCOLORED = 1 << 3;
+    public static final int OWNED_BY_BODY = 1 << 4;
+    public static final int DEAD = 1 << 5;
+    public static final int AT_REST = 1 << 6;
+
+    private CellFlags() { throw new IllegalStateException("Should not instantiate CellFlags"); }
+
+    public static int of(Element element) {
+        int flags = 0;
+        if (element.isIgnited) flags |= IGNITED;
+        if (element.heated) flags |= HEATED;
+        if (element.isFreeFalling) flags |= FREE_FALLING;
+        if (element.discolored) flags |= DISCOLORED;
+        if (element.owningBody != null) flags |= OWNED_BY_BODY;
+        if (element.isDead()) flags |= DEAD;
+        if (element.hasNotMovedBeyondThreshold()) flags |= AT_REST;
+        return flags;
+    }
+}
@@ -0,0 +1,27 @@
+package com.gdx.cellular.grid;
+
+import com.gdx.cellular.elements.Element;
+
+public interface CellGrid {
+
+    int getWidth();
+
+    int getHeight();
+
+    Element get(int x, int y);
+
+    void set(int x, int y, Element element);
+
+    /**
+     * Refreshes any state the grid keeps alongside the element at x, y.
+     * Called by the matrix after an element has stepped or been mutated in place.
+     */
+    void sync(int x, int y);
+
+    int getColor(int x, int y);
+
+    int getFlags(int x, int y);
+
+    GridRow getRow(int y);
+
+}
@@ -0,0 +1,15 @@
+package com.gdx.cellular.grid;
+
+/**
+ * Maps matrix coordinates to a slot in a flat cell array.
+ */
+public interface CellIndex {
+
+    int index(int x, int y);
+
+    /**
+     * Number of slots the backing arrays need, including any padding of partial tiles.
+     */
+    int capacity();
+
+}
@@ -0,0 +1,107 @@
+package com.gdx.cellular.grid;
+
+/**
+ * Downsampled copies of a CellRasterizer's pixels at 1/2, 1/4 and 1/8 scale, for drawing the
+ * world zoomed out. Each texel is the channel-wise average of the up to four texels under it
+ * one level finer. Levels use the rasterizer's pixel layout, top row first.
+ *
+ * Tiles stay aligned across levels, a tile of level l being tileSize >> l texels wide, so
+ * update only rebuilds the blocks under the rasterizer's dirty tiles.
+ */
+public class CellMipmap {
+
+    public static final int LEVELS = 3;
+
+    private final int[] widths = new int[LEVELS + 1];
+    private final int[] heights = new int[LEVELS + 1];
+    private final int[][] levels = new int[LEVELS + 1][];
+
+    public CellMipmap(CellRasterizer rasterizer) {
+        if (rasterizer.getTileSize() % (1 << LEVELS) != 0) {
+            throw new IllegalStateException("Tile size " + rasterizer.getTileSize() + " does not divide into " + LEVELS + " mip levels");
+        }
+        widths[0] = rasterizer.getWidth();
+        heights[0] = rasterizer.getHeight();
+        levels[0] = rasterizer.getPixels();
+        for (int level = 1; level <= LEVELS; level++) {
+            widths[level] = (widths[level - 1] + 1) / 2;
+            heights[level] = (heights[level - 1] + 1) / 2;
+            levels[level] = new int[widths[level] * heights[level]];
+        }
+    }
+
+    /**
+     * Rebuilds every level under the rasterizer's dirty tiles.
+     */
+    public void update(CellRasterizer rasterizer) {
+        for (int tileRow = 0; tileRow < rasterizer.getTileRows(); tileRow++) {
+            for (int tileColumn = 0; tileColumn < rasterizer.getTileColumns(); tileColumn++) {
+                if (rasterizer.isTileDirty(tileColumn, tileRow)) {
+                    updateTile(rasterizer.getTileSize(), tileColumn, tileRow);
+                }
+            }
+        }
+    }
+
+    /**
+     * Rebuilds every level from scratch.
+     */
+    public void rebuild(CellRasterizer rasterizer) {
+        for (int tileRow = 0; tileRow < rasterizer.getTileRows(); tileRow++) {
+            for (int tileColumn = 0; tileColumn < rasterizer.getTileColumns(); tileColumn++) {
+                updateTile(rasterizer.getTileSize(), tileColumn, tileRow);
+            }
+        }
+    }
+
+    private void updateTile(int tileSize, int tileColumn, int tileRow) {
+        for (int level = 1; level <= LEVELS; level++) {
+            int levelTileSize = tileSize >> level;
+            int minX = tileColumn * levelTileSize;
+            int maxX = Math.min(minX + levelTileSize, widths[level]);
+            int minY = tileRow * levelTileSize;
+            int maxY = Math.min(minY + levelTileSize, heights[level]);
+            for (int y = minY; y < maxY; y++) {
+                for (int x = minX; x < maxX; x++) {
+                    levels[level][index(level, x, y)] = average(level - 1, x * 2, y * 2);
+                }
+            }
+        }
+    }
+
+    // Matrix coordinates, bottom row first, to the top-row-first index of the level.
+    private int index(int level, int x, int y) {
+        return (heights[level] - 1 - y) * widths[level] + x;
+    }
+
+    private int average(int level, int x, int y) {
+        int[] source = levels[level];
+        int r = 0, g = 0, b = 0, a = 0, count = 0;
+        for (int sy = y; sy < Math.min(y + 2, heights[level]); sy++) {
+            for (int sx = x; sx < Math.min(x + 2, widths[level]); sx++) {
+                int color = source[index(level, sx, sy)];
+                r += color >>> 24;
+                g += (color >>> 16) & 0xff;
+                b += (color >>> 8) & 0xff;
+                a += color & 0xff;
+                count++;
+            }
+        }
+        return (r / count) << 24 | (g / count) << 16 | (b / count) << 8 | a / count;
+    }
+
+    /**
+     * Texels of the level, 1 to LEVELS.
+     */
+    public int[] getPixels(int level) {
+        return levels[level];
+    }
+
+    public int getWidth(int level) {
+        return widths[level];
+    }
+
+    public int getHeight(int level) {
+        return heights[level];
+    }
+}
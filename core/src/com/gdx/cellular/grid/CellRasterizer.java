@@ -0,0 +1,158 @@
+package com.gdx.cellular.grid;
+
+import java.util.Arrays;
+
+/**
+ * Turns cells into one RGBA8888 pixel each, the layout a Pixmap of the matrix's size uses:
+ * row-major with the top row first, so matrix row y lands in pixel row height - 1 - y.
+ *
+ * Work is done per tile of tileSize x tileSize cells, the matrix's chunks. collectDirtyTiles
+ * picks the visible tiles the matrix stamped after the version each was last rasterized at,
+ * and only those are rasterized and, by MatrixTexture, uploaded. A tile outside the view
+ * keeps its old version and is caught up once it comes into view. Nothing here touches GL,
+ * so it runs headless.
+ */
+public class CellRasterizer {
+
+    private final int width;
+    private final int height;
+    private final int tileSize;
+    private final int tileColumns;
+    private final int tileRows;
+    private final int[] pixels;
+    private final boolean[] dirtyTiles;
+    private final int[] tileVersions;
+    private int dirtyTileCount;
+
+    public CellRasterizer(int width, int height, int tileSize) {
+        this.width = width;
+        this.height = height;
+        this.tileSize = tileSize;
+        this.tileColumns = (width + tileSize - 1) / tileSize;
+        this.tileRows = (height + tileSize - 1) / tileSize;
+        this.pixels = new int[width * height];
+        this.dirtyTiles = new boolean[tileColumns * tileRows];
+        this.tileVersions = new int[dirtyTiles.length];
+        Arrays.fill(tileVersions, -1);
+    }
+
+    public boolean collectDirtyTiles(int[] tileStamps, int sourceVersion) {
+        return collectDirtyTiles(tileStamps, sourceVersion, 0, 0, tileColumns - 1, tileRows - 1);
+    }
+
+    /**
+     * Marks the tiles between the given tile columns and rows, inclusive, that the source at
+     * sourceVersion has newer content for. Returns whether any tile is dirty.
+     */
+    public boolean collectDirtyTiles(int[] tileStamps, int sourceVersion, int minTileColumn, int minTileRow, int maxTileColumn, int maxTileRow) {
+        dirtyTileCount = 0;
+        Arrays.fill(dirtyTiles, false);
+        for (int tileRow = Math.max(minTileRow, 0); tileRow <= Math.min(maxTileRow, tileRows - 1); tileRow++) {
+            for (int tileColumn = Math.max(minTileColumn, 0); tileColumn <= Math.min(maxTileColumn, tileColumns - 1); tileColumn++) {
+                int tile = tileRow * tileColumns + tileColumn;
+                if (tileVersions[tile] < sourceVersion && tileStamps[tile] > tileVersions[tile]) {
+                    dirtyTiles[tile] = true;
+                    tileVersions[tile] = sourceVersion;
+                    dirtyTileCount++;
+                }
+            }
+        }
+        return dirtyTileCount > 0;
+    }
+
+    /**
+     * Forgets which version every tile was last rasterized at, so each is dirty again the next
+     * time it is in view. For when the pixels were not kept up to date for a while.
+     */
+    public void invalidate() {
+        Arrays.fill(tileVersions, -1);
+    }
+
+    /**
+     * Rasterizes the dirty tiles from the live grid.
+     */
+    public void rasterize(CellGrid grid) {
+        rasterizeTiles(grid, 0, dirtyTiles.length);
+    }
+
+    /**
+     * Rasterizes the dirty tiles with ids fromTile to toTile, exclusive, from the live grid.
+     * Tiles cover disjoint pixels, so disjoint ranges can be rasterized in parallel.
+     */
+    public void rasterizeTiles(CellGrid grid, int fromTile, int toTile) {
+        for (int tile = fromTile; tile < toTile; tile++) {
+            if (!dirtyTiles[tile]) {
+                continue;
+            }
+            int minX = (tile % tileColumns) * tileSize;
+            int maxX = Math.min(minX + tileSize, width) - 1;
+            int minY = (tile / tileColumns) * tileSize;
+            int maxY = Math.min(minY + tileSize, height) - 1;
+            for (int y = minY; y <= maxY; y++) {
+                int pixelRow = (height - 1 - y) * width;
+                for (int x = minX; x <= maxX; x++) {
+                    pixels[pixelRow + x] = grid.getColor(x, y);
+                }
+            }
+        }
+    }
+
+    /**
+     * Rasterizes the dirty tiles from colors published by a CellSnapshot, which are row-major
+     * with the bottom row first.
+     */
+    public void rasterize(int[] colors) {
+        rasterizeTiles(colors, 0, dirtyTiles.length);
+    }
+
+    public void rasterizeTiles(int[] colors, int fromTile, int toTile) {
+        for (int tile = fromTile; tile < toTile; tile++) {
+            if (!dirtyTiles[tile]) {
+                continue;
+            }
+            int minX = (tile % tileColumns) * tileSize;
+            int length = Math.min(minX + tileSize, width) - minX;
+            int minY = (tile / tileColumns) * tileSize;
+            int maxY = Math.min(minY + tileSize, height) - 1;
+            for (int y = minY; y <= maxY; y++) {
+                System.arraycopy(colors, y * width + minX, pixels, (height - 1 - y) * width + minX, length);
+            }
+        }
+    }
+
+    public boolean isTileDirty(int tileColumn, int tileRow) {
+        return dirtyTiles[tileRow * tileColumns + tileColumn];
+    }
+
+    public int getDirtyTileCount() {
+        return dirtyTileCount;
+    }
+
+    public int[] getPixels() {
+        return pixels;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public int getTileColumns() {
+        return tileColumns;
+    }
+
+    public int getTileRows() {
+        return tileRows;
+    }
+
+    public int getTileCount() {
+        return dirtyTiles.length;
+    }
+}
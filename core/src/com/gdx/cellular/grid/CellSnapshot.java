@@ -0,0 +1,109 @@
+package com.gdx.cellular.grid;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Triple-buffered copy of the cell colors of a finished tick.
+ *
+ * The simulation thread fills the back buffer and swaps it with the middle one; the
+ * render thread swaps the middle buffer into the front whenever a newer one is waiting.
+ * Neither side ever waits for the other, so a long tick just means the same front
+ * buffer is drawn again.
+ *
+ * Each buffer remembers the render version it was last brought up to, so a capture only
+ * copies the tiles the matrix stamped since then.
+ */
+public class CellSnapshot {
+
+    private static final int FRESH = 4;
+
+    private final int width;
+    private final int height;
+    private final int tileSize;
+    private final int tileColumns;
+    private final int[][] colors = new int[3][];
+    private final int[] ticks = new int[3];
+    private final int[] versions = { -1, -1, -1 };
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;
+    private int front = 2;
+
+    public CellSnapshot(int width, int height, int tileSize) {
+        this.width = width;
+        this.height = height;
+        this.tileSize = tileSize;
+        this.tileColumns = (width + tileSize - 1) / tileSize;
+        for (int i = 0; i < colors.length; i++) {
+            colors[i] = new int[width * height];
+        }
+    }
+
+    /**
+     * Copies the colors of the grid, row-major, and publishes them. Only tiles stamped after the
+     * back buffer's version are copied; the rest already match. Called by the simulation thread only.
+     */
+    public void capture(CellGrid grid, int tick, int[] tileStamps, int version) {
+        captureTiles(grid, tileStamps, 0, tileStamps.length);
+        publish(tick, version);
+    }
+
+    /**
+     * Copies the stale tiles with ids fromTile to toTile, exclusive, into the back buffer. Disjoint
+     * ranges may be copied by several threads at once, all on behalf of the simulation thread,
+     * which then calls publish.
+     */
+    public void captureTiles(CellGrid grid, int[] tileStamps, int fromTile, int toTile) {
+        int[] target = colors[back];
+        int since = versions[back];
+        for (int tile = fromTile; tile < toTile; tile++) {
+            if (tileStamps[tile] <= since) {
+                continue;
+            }
+            int minX = (tile % tileColumns) * tileSize;
+            int maxX = Math.min(minX + tileSize, width);
+            int minY = (tile / tileColumns) * tileSize;
+            int maxY = Math.min(minY + tileSize, height);
+            for (int y = minY; y < maxY; y++) {
+                int rowStart = y * width;
+                for (int x = minX; x < maxX; x++) {
+                    target[rowStart + x] = grid.getColor(x, y);
+                }
+            }
+        }
+    }
+
+    public void publish(int tick, int version) {
+        ticks[back] = tick;
+        versions[back] = version;
+        back = middle.getAndSet(back | FRESH) & 3;
+    }
+
+    /**
+     * Returns the newest published colors. Called by the render thread only.
+     */
+    public int[] acquire() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & 3;
+        }
+        return colors[front];
+    }
+
+    public int getTick() {
+        return ticks[front];
+    }
+
+    /**
+     * Render version of the front buffer. Called by the render thread only.
+     */
+    public int getVersion() {
+        return versions[front];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,104 @@
+package com.gdx.cellular.grid;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Dirty rectangles of every chunk, indexed by chunk id.
+ *
+ * A rectangle is packed into one int as four bytes of chunk-local coordinates
+ * (minX, minY, maxX, maxY), so chunks can be at most 256 cells wide. Stepper threads
+ * grow next frame's rectangle with a CAS, and only when it actually grows: the common
+ * case of a cell moving inside an area that is already dirty is a single read.
+ * swap moves next into current at the start of a frame, when nothing is stepping,
+ * and current is then only read until the following swap.
+ */
+public class ChunkActivity {
+
+    public static final int EMPTY = pack(255, 255, 0, 0);
+
+    private final int[] current;
+    private final AtomicIntegerArray next;
+
+    public ChunkActivity(int chunkCount) {
+        this.current = new int[chunkCount];
+        this.next = new AtomicIntegerArray(chunkCount);
+        Arrays.fill(current, EMPTY);
+        for (int i = 0; i < chunkCount; i++) {
+            next.set(i, EMPTY);
+        }
+    }
+
+    public static int pack(int minX, int minY, int maxX, int maxY) {
+        return minX << 24 | minY << 16 | maxX << 8 | maxY;
+    }
+
+    public static int minX(int rect) {
+        return rect >>> 24;
+    }
+
+    public static int minY(int rect) {
+        return (rect >>> 16) & 0xFF;
+    }
+
+    public static int maxX(int rect) {
+        return (rect >>> 8) & 0xFF;
+    }
+
+    public static int maxY(int rect) {
+        return rect & 0xFF;
+    }
+
+    public static boolean isEmpty(int rect) {
+        return minX(rect) > maxX(rect);
+    }
+
+    public static int union(int a, int b) {
+        return pack(Math.min(minX(a), minX(b)), Math.min(minY(a), minY(b)), Math.max(maxX(a), maxX(b)), Math.max(maxY(a), maxY(b)));
+    }
+
+    /**
+     * This frame's rectangle of the chunk.
+     */
+    public int get(int chunkId) {
+        return current[chunkId];
+    }
+
+    /**
+     * Replaces this frame's rectangle. Must not run while any stepper is active.
+     */
+    public void set(int chunkId, int rect) {
+        current[chunkId] = rect;
+    }
+
+    public int getNext(int chunkId) {
+        return next.get(chunkId);
+    }
+
+    /**
+     * Grows next frame's rectangle of the chunk to cover the given packed rectangle.
+     */
+    public void markDirty(int chunkId, int rect) {
+        int existing = next.get(chunkId);
+        while (true) {
+            int merged = union(existing, rect);
+            if (merged == existing || next.compareAndSet(chunkId, existing, merged)) {
+                return;
+            }
+            existing = next.get(chunkId);
+        }
+    }
+
+    /**
+     * Makes next frame's rectangles current and clears them. Must not run while any stepper is active.
+     */
+    public void swap() {
+        for (int i = 0; i < current.length; i++) {
+            int rect = next.get(i);
+            current[i] = rect;
+            if (rect != EMPTY) {
+                next.set(i, EMPTY);
+            }
+        }
+    }
+}
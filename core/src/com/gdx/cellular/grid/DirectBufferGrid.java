@@ -0,0 +1,311 @@
+package com.gdx.cellular.grid;
+
+import com.gdx.cellular.elements.Element;
+import com.gdx.cellular.elements.ElementPool;
+import com.gdx.cellular.elements.ElementType;
+import com.gdx.cellular.elements.solid.immoveable.ImmovableSolid;
+import com.gdx.cellular.util.Chunk;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Cell state stored outside the Java heap in a direct ByteBuffer, optionally mapped
+ * from a region file. Each cell is a fixed size record, so the buffer is a complete
+ * image of the world: a mapped file left behind by a crash can be opened again and
+ * the Elements are rebuilt from it as they are first accessed.
+ *
+ * Elements are only kept on the heap while their chunk is in use. Once a chunk has gone
+ * RELEASE_AFTER_FRAMES frames without being stepped or touched, its cells are written back and
+ * their Elements handed to the type's pool, so the heap holds about one Element per awake cell
+ * rather than one per cell of the world. Elements with state the record has no room for stay.
+ *
+ * Steppers on several threads may read the same cell first, so a built Element is published
+ * with a compare and set and whoever loses takes the winner's.
+ */
+public class DirectBufferGrid implements CellGrid {
+
+    private static final int MAGIC = 0x46534731;
+    private static final int HEADER_BYTES = 16;
+
+    private static final int TYPE = 0;
+    private static final int FLAGS = 1;
+    private static final int COLOR = 4;
+    private static final int VELOCITY_X = 8;
+    private static final int VELOCITY_Y = 12;
+    private static final int HEALTH = 16;
+    private static final int TEMPERATURE = 20;
+    public static final int CELL_BYTES = 24;
+
+    // Frames a chunk must go unstepped and untouched before its Elements are released, so the
+    // chunks around an active one are not released and rebuilt every frame.
+    public static final int RELEASE_AFTER_FRAMES = 60;
+
+    private static final ElementType[] TYPES = ElementType.values();
+
+    private final int width;
+    private final int height;
+    private final ByteBuffer buffer;
+    private final AtomicReferenceArray<Element> elements;
+    // 1 for chunks an Element was built in or set into since the last frame boundary.
+    private final AtomicIntegerArray touchedChunks;
+    // Frames since each chunk was last stepped or touched. Only read and written between frames.
+    private final int[] idleFrames;
+    private final int chunkColumns;
+    private final GridRow[] rows;
+    private final CellIndex cellIndex;
+
+    private DirectBufferGrid(int width, int height, GridLayout layout, ByteBuffer buffer, boolean recovered) {
+        this.width = width;
+        this.height = height;
+        this.cellIndex = layout.createIndex(width, height);
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.elements = new AtomicReferenceArray<>(cellIndex.capacity());
+        this.chunkColumns = (width + Chunk.size - 1) / Chunk.size;
+        int chunkCount = chunkColumns * ((height + Chunk.size - 1) / Chunk.size);
+        this.touchedChunks = new AtomicIntegerArray(chunkCount);
+        this.idleFrames = new int[chunkCount];
+        this.rows = new GridRow[height];
+        for (int y = 0; y < height; y++) {
+            rows[y] = new GridRow(this, y);
+        }
+        if (!recovered) {
+            this.buffer.putInt(0, MAGIC);
+            this.buffer.putInt(4, width);
+            this.buffer.putInt(8, height);
+            this.buffer.putInt(12, layout.ordinal());
+            clear();
+        }
+    }
+
+    public static DirectBufferGrid allocate(int width, int height, GridLayout layout) {
+        return new DirectBufferGrid(width, height, layout, ByteBuffer.allocateDirect(byteSize(width, height, layout)), false);
+    }
+
+    /**
+     * Maps the grid from a region file. When recover is true and the file holds a
+     * world of the same dimensions and layout, that world is kept; otherwise the file is reset.
+     */
+    public static DirectBufferGrid map(Path path, int width, int height, GridLayout layout, boolean recover) {
+        int size = byteSize(width, height, layout);
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                boolean matches = channel.size() == size;
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                mapped.order(ByteOrder.LITTLE_ENDIAN);
+                boolean recovered = recover && matches
+                        && mapped.getInt(0) == MAGIC
+                        && mapped.getInt(4) == width
+                        && mapped.getInt(8) == height
+                        && mapped.getInt(12) == layout.ordinal();
+                return new DirectBufferGrid(width, height, layout, mapped, recovered);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not map world file " + path, e);
+        }
+    }
+
+    private static int byteSize(int width, int height, GridLayout layout) {
+        return HEADER_BYTES + layout.createIndex(width, height).capacity() * CELL_BYTES;
+    }
+
+    /**
+     * Empties every cell in place, keeping the buffer and, for a mapped grid, its mapping.
+     */
+    public void clear() {
+        for (int i = 0; i < elements.length(); i++) {
+            elements.set(i, null);
+        }
+        Element emptyCell = ElementType.EMPTYCELL.createElementByMatrix(0, 0);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                write(offset(x, y), emptyCell);
+            }
+        }
+        for (int chunk = 0; chunk < idleFrames.length; chunk++) {
+            touchedChunks.set(chunk, 0);
+            idleFrames[chunk] = 0;
+        }
+    }
+
+    /**
+     * Counts another frame for the chunk at chunkColumn, chunkRow and releases its Elements once
+     * it has gone RELEASE_AFTER_FRAMES frames without being stepped or touched. Like
+     * ElementPool.recycleAll, must not run while any stepper is active.
+     */
+    public void updateIdleChunk(int chunkColumn, int chunkRow, boolean stepping) {
+        int chunk = chunkRow * chunkColumns + chunkColumn;
+        if (touchedChunks.getAndSet(chunk, 0) != 0 || stepping) {
+            idleFrames[chunk] = 0;
+        } else if (++idleFrames[chunk] == RELEASE_AFTER_FRAMES) {
+            releaseElements(chunkColumn, chunkRow);
+        }
+    }
+
+    /**
+     * Writes the cells of the chunk at chunkColumn, chunkRow back to the buffer and drops their
+     * Elements, to be rebuilt on the next get. Pooled Elements go back to their pool. Elements
+     * something else still refers to, those of physics bodies and of types without a pool, stay,
+     * as do Elements the record can not rebuild as they are.
+     */
+    private void releaseElements(int chunkColumn, int chunkRow) {
+        int minX = chunkColumn * Chunk.size;
+        int minY = chunkRow * Chunk.size;
+        int maxX = Math.min(minX + Chunk.size, width);
+        int maxY = Math.min(minY + Chunk.size, height);
+        for (int y = minY; y < maxY; y++) {
+            for (int x = minX; x < maxX; x++) {
+                int index = cellIndex.index(x, y);
+                Element element = elements.get(index);
+                if (element == null) {
+                    continue;
+                }
+                ElementPool pool = element.elementType.pool;
+                if ((pool == null && element.elementType != ElementType.EMPTYCELL) || !element.canRebuildFromRecord()) {
+                    continue;
+                }
+                write(offset(x, y), element);
+                elements.set(index, null);
+                if (pool != null && ElementPool.enabled) {
+                    pool.free(element);
+                }
+            }
+        }
+    }
+
+    public void flush() {
+        if (buffer instanceof MappedByteBuffer) {
+            ((MappedByteBuffer) buffer).force();
+        }
+    }
+
+    private int chunk(int x, int y) {
+        return (y / Chunk.size) * chunkColumns + x / Chunk.size;
+    }
+
+    // Checked first, since set runs for every move and most chunks are already marked.
+    private void touch(int chunk) {
+        if (touchedChunks.get(chunk) == 0) {
+            touchedChunks.set(chunk, 1);
+        }
+    }
+
+    private int offset(int x, int y) {
+        return HEADER_BYTES + cellIndex.index(x, y) * CELL_BYTES;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public Element get(int x, int y) {
+        int index = cellIndex.index(x, y);
+        Element element = elements.get(index);
+        if (element != null) {
+            return element;
+        }
+        int offset = offset(x, y);
+        Element built = materialize(x, y, offset);
+        if (!elements.compareAndSet(index, null, built)) {
+            // Another thread built or set this cell first. Nothing else has seen ours.
+            if (built.elementType.pool != null && ElementPool.enabled) {
+                built.elementType.pool.release(built);
+            }
+            return elements.get(index);
+        }
+        touch(chunk(x, y));
+        if (built.elementType == ElementType.EMPTYCELL && buffer.get(offset + TYPE) != ElementType.EMPTYCELL.ordinal()) {
+            write(offset, built);
+        }
+        return built;
+    }
+
+    // Particles are only ever in flight and dead cells were about to be replaced, so both come back empty.
+    private Element materialize(int x, int y, int offset) {
+        ElementType type = TYPES[buffer.get(offset + TYPE)];
+        int flags = buffer.get(offset + FLAGS);
+        if (type == ElementType.EMPTYCELL || type.classType == ElementType.ClassType.PARTICLE || (flags & CellFlags.DEAD) != 0) {
+            return ElementType.EMPTYCELL.createElementByMatrix(x, y);
+        }
+        Element element = type.createElementByMatrix(x, y);
+        element.color = buffer.getInt(offset + COLOR);
+        if (element.vel != null && element.vel != ImmovableSolid.ZERO_VELOCITY) {
+            element.vel.x = buffer.getFloat(offset + VELOCITY_X);
+            element.vel.y = buffer.getFloat(offset + VELOCITY_Y);
+        }
+        element.health = buffer.getInt(offset + HEALTH);
+        element.temperature = buffer.getInt(offset + TEMPERATURE);
+        element.isIgnited = (flags & CellFlags.IGNITED) != 0;
+        element.heated = (flags & CellFlags.HEATED) != 0;
+        element.isFreeFalling = (flags & CellFlags.FREE_FALLING) != 0;
+        element.discolored = (flags & CellFlags.DISCOLORED) != 0;
+        if ((flags & CellFlags.AT_REST) != 0) {
+            element.stoppedMovingCount = element.getStoppedMovingThreshold();
+        }
+        element.clearStepped();
+        return element;
+    }
+
+    @Override
+    public void set(int x, int y, Element element) {
+        elements.set(cellIndex.index(x, y), element);
+        touch(chunk(x, y));
+        write(offset(x, y), element);
+    }
+
+    @Override
+    public void sync(int x, int y) {
+        Element element = elements.get(cellIndex.index(x, y));
+        if (element != null) {
+            write(offset(x, y), element);
+        }
+    }
+
+    private void write(int offset, Element element) {
+        buffer.put(offset + TYPE, (byte) element.elementType.ordinal());
+        buffer.put(offset + FLAGS, (byte) CellFlags.of(element));
+        buffer.putInt(offset + COLOR, element.color);
+        if (element.vel != null) {
+            buffer.putFloat(offset + VELOCITY_X, element.vel.x);
+            buffer.putFloat(offset + VELOCITY_Y, element.vel.y);
+        } else {
+            buffer.putFloat(offset + VELOCITY_X, 0);
+            buffer.putFloat(offset + VELOCITY_Y, 0);
+        }
+        buffer.putInt(offset + HEALTH, element.health);
+        buffer.putInt(offset + TEMPERATURE, element.temperature);
+    }
+
+    @Override
+    public int getColor(int x, int y) {
+        return buffer.getInt(offset(x, y) + COLOR);
+    }
+
+    @Override
+    public int getFlags(int x, int y) {
+        return buffer.get(offset(x, y) + FLAGS);
+    }
+
+    @Override
+    public GridRow getRow(int y) {
+        return rows[y];
+    }
+}
@@ -0,0 +1,66 @@
+package com.gdx.cellular.grid;
+
+import com.badlogic.gdx.utils.Array;
+import com.gdx.cellular.elements.Element;
+import com.gdx.cellular.elements.ElementType;
+
+public class ElementArrayGrid implements CellGrid {
+
+    private final int width;
+    private final int height;
+    private final Array<Array<Element>> matrix;
+    private final GridRow[] rows;
+
+    public ElementArrayGrid(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.matrix = new Array<>(true, height);
+        this.rows = new GridRow[height];
+        for (int y = 0; y < height; y++) {
+            Array<Element> innerArr = new Array<>(true, width);
+            for (int x = 0; x < width; x++) {
+                innerArr.add(ElementType.EMPTYCELL.createElementByMatrix(x, y));
+            }
+            matrix.add(innerArr);
+            rows[y] = new GridRow(this, y);
+        }
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public Element get(int x, int y) {
+        return matrix.get(y).get(x);
+    }
+
+    @Override
+    public void set(int x, int y, Element element) {
+        matrix.get(y).set(x, element);
+    }
+
+    @Override
+    public void sync(int x, int y) { }
+
+    @Override
+    public int getColor(int x, int y) {
+        return get(x, y).color;
+    }
+
+    @Override
+    public int getFlags(int x, int y) {
+        return CellFlags.of(get(x, y));
+    }
+
+    @Override
+    public GridRow getRow(int y) {
+        return rows[y];
+    }
+}
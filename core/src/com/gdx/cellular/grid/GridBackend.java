@@ -0,0 +1,49 @@
+package com.gdx.cellular.grid;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public enum GridBackend {
+    ELEMENT_ARRAY {
+        // Rows of Element references, layout does not apply.
+        @Override
+        public CellGrid createGrid(int width, int height, GridLayout layout) {
+            return new ElementArrayGrid(width, height);
+        }
+    },
+    PRIMITIVE_ARRAY {
+        @Override
+        public CellGrid createGrid(int width, int height, GridLayout layout) {
+            return new PrimitiveArrayGrid(width, height, layout);
+        }
+    },
+    DIRECT_BUFFER {
+        @Override
+        public CellGrid createGrid(int width, int height, GridLayout layout) {
+            return DirectBufferGrid.allocate(width, height, layout);
+        }
+    },
+    MAPPED_FILE {
+        @Override
+        public CellGrid createGrid(int width, int height, GridLayout layout) {
+            return DirectBufferGrid.map(WORLD_FILE, width, height, layout, false);
+        }
+
+        @Override
+        public CellGrid openGrid(int width, int height, GridLayout layout) {
+            return DirectBufferGrid.map(WORLD_FILE, width, height, layout, true);
+        }
+    };
+
+    public static final Path WORLD_FILE = Paths.get("save/world.map");
+
+    public abstract CellGrid createGrid(int width, int height, GridLayout layout);
+
+    /**
+     * Grid used when the matrix is first built. Backends that persist the world
+     * pick up where the last session left off instead of starting empty.
+     */
+    public CellGrid openGrid(int width, int height, GridLayout layout) {
+        return createGrid(width, height, layout);
+    }
+}
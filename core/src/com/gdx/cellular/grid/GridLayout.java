@@ -0,0 +1,34 @@
+package com.gdx.cellular.grid;
+
+import com.gdx.cellular.util.Chunk;
+
+/**
+ * Order in which a grid's cells are laid out in memory.
+ *
+ * Only PRIMITIVE_ARRAY and DIRECT_BUFFER lay their cells out by it, and stepping reads neither:
+ * it walks Element references, which the default ELEMENT_ARRAY keeps in rows. So TILED and
+ * MORTON do not change how the simulation steps yet. They are groundwork for stepping from flat
+ * cell state, measured on their own by GridLayoutBenchmark.
+ */
+public enum GridLayout {
+    ROW_MAJOR {
+        @Override
+        public CellIndex createIndex(int width, int height) {
+            return new RowMajorIndex(width, height);
+        }
+    },
+    TILED {
+        @Override
+        public CellIndex createIndex(int width, int height) {
+            return new TiledIndex(width, height, Chunk.size, false);
+        }
+    },
+    MORTON {
+        @Override
+        public CellIndex createIndex(int width, int height) {
+            return new TiledIndex(width, height, Chunk.size, true);
+        }
+    };
+
+    public abstract CellIndex createIndex(int width, int height);
+}
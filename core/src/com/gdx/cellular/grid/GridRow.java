@@ -0,0 +1,30 @@
+package com.gdx.cellular.grid;
+
+import com.gdx.cellular.elements.Element;
+
+public class GridRow {
+
+    private final CellGrid grid;
+    private final int y;
+    public final int size;
+
+    public GridRow(CellGrid grid, int y) {
+        this.grid = grid;
+        this.y = y;
+        this.size = grid.getWidth();
+    }
+
+    public Element get(int x) {
+        if (x >= size) throw new IndexOutOfBoundsException("index can't be >= size: " + x + " >= " + size);
+        return grid.get(x, y);
+    }
+
+    public void set(int x, Element element) {
+        if (x >= size) throw new IndexOutOfBoundsException("index can't be >= size: " + x + " >= " + size);
+        grid.set(x, y, element);
+    }
+
+    public int getY() {
+        return y;
+    }
+}
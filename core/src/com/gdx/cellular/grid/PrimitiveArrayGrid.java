@@ -0,0 +1,97 @@
+package com.gdx.cellular.grid;
+
+import com.gdx.cellular.elements.Element;
+import com.gdx.cellular.elements.ElementType;
+
+/**
+ * Cell grid that keeps the state drawing reads, each cell's color and CellFlags, in flat
+ * primitive arrays addressed through a CellIndex (row-major by default), so drawing walks
+ * contiguous memory instead of chasing Element references.
+ *
+ * Stepping still goes through the Element references, so only what a reader of the arrays
+ * uses is mirrored; everything else would be a second copy to keep in sync on every set.
+ */
+public class PrimitiveArrayGrid implements CellGrid {
+
+    private final int width;
+    private final int height;
+    private final Element[] elements;
+    private final GridRow[] rows;
+    private final CellIndex cellIndex;
+
+    public final int[] colors;
+    public final byte[] flags;
+
+    public PrimitiveArrayGrid(int width, int height) {
+        this(width, height, GridLayout.ROW_MAJOR);
+    }
+
+    public PrimitiveArrayGrid(int width, int height, GridLayout layout) {
+        this.width = width;
+        this.height = height;
+        this.cellIndex = layout.createIndex(width, height);
+        int size = cellIndex.capacity();
+        this.elements = new Element[size];
+        this.colors = new int[size];
+        this.flags = new byte[size];
+        this.rows = new GridRow[height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                set(x, y, ElementType.EMPTYCELL.createElementByMatrix(x, y));
+            }
+            rows[y] = new GridRow(this, y);
+        }
+    }
+
+    public int index(int x, int y) {
+        return cellIndex.index(x, y);
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public Element get(int x, int y) {
+        return elements[index(x, y)];
+    }
+
+    @Override
+    public void set(int x, int y, Element element) {
+        int index = index(x, y);
+        elements[index] = element;
+        write(index, element);
+    }
+
+    @Override
+    public void sync(int x, int y) {
+        int index = index(x, y);
+        write(index, elements[index]);
+    }
+
+    private void write(int index, Element element) {
+        colors[index] = element.color;
+        flags[index] = (byte) CellFlags.of(element);
+    }
+
+    @Override
+    public int getColor(int x, int y) {
+        return colors[index(x, y)];
+    }
+
+    @Override
+    public int getFlags(int x, int y) {
+        return flags[index(x, y)];
+    }
+
+    @Override
+    public GridRow getRow(int y) {
+        return rows[y];
+    }
+}
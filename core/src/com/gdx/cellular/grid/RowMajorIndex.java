@@ -0,0 +1,22 @@
+package com.gdx.cellular.grid;
+
+public class RowMajorIndex implements CellIndex {
+
+    private final int width;
+    private final int height;
+
+    public RowMajorIndex(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    @Override
+    public int index(int x, int y) {
+        return y * width + x;
+    }
+
+    @Override
+    public int capacity() {
+        return width * height;
+    }
+}
@@ -0,0 +1,146 @@
+package com.gdx.cellular.grid;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * One bit per cell marking cells the steppers can skip.
+ *
+ * Steppers put a cell to sleep right after stepping it, and any thread may wake a
+ * cell at any time. Wakes are collected in a second bitmap and only applied by
+ * applyWakeups at the start of the next frame. That way a wake that races with the
+ * sleep of the same cell is never lost, and a woken cell simply steps next frame.
+ */
+public class SleepMap {
+
+    private final int width;
+    private final int height;
+    private final AtomicLongArray sleeping;
+    private final AtomicLongArray woken;
+
+    public SleepMap(int width, int height) {
+        this.width = width;
+        this.height = height;
+        int words = (width * height + 63) >>> 6;
+        this.sleeping = new AtomicLongArray(words);
+        this.woken = new AtomicLongArray(words);
+    }
+
+    public boolean isSleeping(int x, int y) {
+        int bit = y * width + x;
+        return (sleeping.get(bit >>> 6) & (1L << bit)) != 0;
+    }
+
+    public void sleep(int x, int y) {
+        int bit = y * width + x;
+        setBits(sleeping, bit >>> 6, 1L << bit);
+    }
+
+    public void wake(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return;
+        }
+        int bit = y * width + x;
+        setBits(woken, bit >>> 6, 1L << bit);
+    }
+
+    /**
+     * Wakes the cell and its eight neighbours.
+     */
+    public void wakeNeighborhood(int x, int y) {
+        int minX = Math.max(x - 1, 0);
+        int maxX = Math.min(x + 1, width - 1);
+        if (minX > maxX) {
+            return;
+        }
+        for (int row = Math.max(y - 1, 0); row <= Math.min(y + 1, height - 1); row++) {
+            int first = row * width + minX;
+            int last = row * width + maxX;
+            int firstWord = first >>> 6;
+            int lastWord = last >>> 6;
+            if (firstWord == lastWord) {
+                setBits(woken, firstWord, (-1L << first) & (-1L >>> (63 - (last & 63))));
+            } else {
+                setBits(woken, firstWord, -1L << first);
+                setBits(woken, lastWord, -1L >>> (63 - (last & 63)));
+            }
+        }
+    }
+
+    /**
+     * Clears the sleep bit of every cell woken since the last call. Must not run while any stepper is active.
+     */
+    public void applyWakeups() {
+        for (int i = 0; i < woken.length(); i++) {
+            long bits = woken.get(i);
+            if (bits != 0) {
+                woken.set(i, 0);
+                sleeping.set(i, sleeping.get(i) & ~bits);
+            }
+        }
+    }
+
+    /**
+     * Bounds of the awake cells of the inclusive rectangle, packed like ChunkActivity's rectangles
+     * relative to minX, minY, or ChunkActivity.EMPTY if every cell of it sleeps.
+     */
+    public int awakeBounds(int minX, int minY, int maxX, int maxY) {
+        int awakeMinX = Integer.MAX_VALUE;
+        int awakeMaxX = -1;
+        int awakeMinY = -1;
+        int awakeMaxY = -1;
+        for (int row = minY; row <= maxY; row++) {
+            int rowStart = row * width;
+            int first = rowStart + minX;
+            int last = rowStart + maxX;
+            int firstWord = first >>> 6;
+            int lastWord = last >>> 6;
+            for (int word = firstWord; word <= lastWord; word++) {
+                long mask = -1L;
+                if (word == firstWord) {
+                    mask &= -1L << first;
+                }
+                if (word == lastWord) {
+                    mask &= -1L >>> (63 - (last & 63));
+                }
+                long awake = ~sleeping.get(word) & mask;
+                if (awake != 0) {
+                    awakeMinX = Math.min(awakeMinX, (word << 6) + Long.numberOfTrailingZeros(awake) - rowStart);
+                    awakeMaxX = Math.max(awakeMaxX, (word << 6) + 63 - Long.numberOfLeadingZeros(awake) - rowStart);
+                    if (awakeMinY < 0) {
+                        awakeMinY = row;
+                    }
+                    awakeMaxY = row;
+                }
+            }
+        }
+        if (awakeMinY < 0) {
+            return ChunkActivity.EMPTY;
+        }
+        return ChunkActivity.pack(awakeMinX - minX, awakeMinY - minY, awakeMaxX - minX, awakeMaxY - minY);
+    }
+
+    public void wakeAll() {
+        for (int i = 0; i < sleeping.length(); i++) {
+            sleeping.set(i, 0);
+            woken.set(i, 0);
+        }
+    }
+
+    public int getSleepingCount() {
+        int count = 0;
+        for (int i = 0; i < sleeping.length(); i++) {
+            count += Long.bitCount(sleeping.get(i));
+        }
+        return count;
+    }
+
+    private static void setBits(AtomicLongArray bitmap, int word, long mask) {
+        long current = bitmap.get(word);
+        while ((current & mask) != mask) {
+            if (bitmap.compareAndSet(word, current, current | mask)) {
+                return;
+            }
+            current = bitmap.get(word);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.gdx.cellular.grid;
+
+/**
+ * Stores each tileSize x tileSize tile as one contiguous block, so a chunk and
+ * the rows around a cell sit close together in memory. Within a tile cells are
+ * either row-major or Morton (Z-order) interleaved.
+ */
+public class TiledIndex implements CellIndex {
+
+    private final int tileShift;
+    private final int tileMask;
+    private final int tileAreaShift;
+    private final boolean morton;
+    private final int tilesPerRow;
+    private final int tileRows;
+    private final int[] localX;
+    private final int[] localY;
+
+    public TiledIndex(int width, int height, int tileSize, boolean morton) {
+        if (Integer.bitCount(tileSize) != 1) {
+            throw new IllegalStateException("Tile size must be a power of two, was " + tileSize);
+        }
+        this.tileShift = Integer.numberOfTrailingZeros(tileSize);
+        this.tileMask = tileSize - 1;
+        this.tileAreaShift = tileShift * 2;
+        this.morton = morton;
+        this.tilesPerRow = (width + tileMask) >> tileShift;
+        this.tileRows = (height + tileMask) >> tileShift;
+        this.localX = new int[tileSize];
+        this.localY = new int[tileSize];
+        for (int i = 0; i < tileSize; i++) {
+            localX[i] = spreadBits(i);
+            localY[i] = spreadBits(i) << 1;
+        }
+    }
+
+    private static int spreadBits(int value) {
+        int spread = 0;
+        for (int bit = 0; bit < 16; bit++) {
+            spread |= ((value >> bit) & 1) << (bit * 2);
+        }
+        return spread;
+    }
+
+    @Override
+    public int index(int x, int y) {
+        int tile = (y >> tileShift) * tilesPerRow + (x >> tileShift);
+        if (morton) {
+            return (tile << tileAreaShift) | localY[y & tileMask] | localX[x & tileMask];
+        }
+        return (tile << tileAreaShift) | ((y & tileMask) << tileShift) | (x & tileMask);
+    }
+
+    @Override
+    public int capacity() {
+        return (tilesPerRow * tileRows) << tileAreaShift;
+    }
+}
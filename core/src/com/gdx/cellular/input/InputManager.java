@@ -21,12 +21,16 @@ import com.gdx.cellular.box2d.PhysicsElementActor;
 import com.gdx.cellular.box2d.ShapeFactory;
 import com.gdx.cellular.elements.Element;
 import com.gdx.cellular.elements.ElementType;
+import com.gdx.cellular.grid.GridRow;
 import com.gdx.cellular.ui.ControlsMenu;
 import com.gdx.cellular.ui.CreatorMenu;
 import com.gdx.cellular.ui.CursorActor;
+import com.gdx.cellular.ui.DrawMode;
 import com.gdx.cellular.ui.ModeActor;
+import com.gdx.cellular.util.StepScheduler;
 import com.gdx.cellular.util.TextInputHandler;
 import com.gdx.cellular.util.WeatherSystem;
+import com.gdx.cellular.util.WorldRandom;
 
 import java.io.File;
 import java.io.IOException;
@@ -55,6 +59,7 @@ public class InputManager {
     public BodyDef.BodyType bodyType = BodyDef.BodyType.DynamicBody;
 
     private boolean paused = false;
+    private boolean stepOneFrame = false;
     private final TextInputHandler saveLevelNameListener = new TextInputHandler(this, this::setFileNameForSave);
     private final TextInputHandler loadLevelNameListener = new TextInputHandler(this, this::setFileNameForLoad);
     private final Path savePath = Paths.get("save/");
@@ -132,6 +137,40 @@ public class InputManager {
         }
     }
 
+    public StepScheduler toggleStepScheduler(StepScheduler stepScheduler) {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.J)) {
+            StepScheduler[] schedulers = StepScheduler.values();
+            return schedulers[(stepScheduler.ordinal() + 1) % schedulers.length];
+        } else {
+            return stepScheduler;
+        }
+    }
+
+    public boolean togglePipelining(boolean pipelined) {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.Y)) {
+            return !pipelined;
+        } else {
+            return pipelined;
+        }
+    }
+
+    public DrawMode toggleDrawMode(DrawMode drawMode) {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.I)) {
+            DrawMode[] drawModes = DrawMode.values();
+            return drawModes[(drawMode.ordinal() + 1) % drawModes.length];
+        } else {
+            return drawMode;
+        }
+    }
+
+    public boolean toggleAutotune(boolean autotune) {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.U)) {
+            return !autotune;
+        } else {
+            return autotune;
+        }
+    }
+
     public void cycleMouseModes() {
         switch (mouseMode) {
             case SPAWN:
@@ -158,9 +197,9 @@ public class InputManager {
         matrix.clearAll();
     }
 
-    public void placeSpout(CellularMatrix matrix) {
+    public void placeSpout(CellularMatrix matrix, int screenX, int screenY) {
         Vector3 touchPos = new Vector3();
-        touchPos.set(Gdx.input.getX(), Gdx.input.getY(), 0);
+        touchPos.set(screenX, screenY, 0);
         camera.unproject(touchPos);
         if (mouseMode == MouseMode.SPAWN) {
             matrix.addSpout(currentlySelectedElement, touchPos, brushSize, brushType, false);
@@ -173,9 +212,9 @@ public class InputManager {
         this.touchedLastFrame = touchedLastFrame;
     }
 
-    public void spawnElementByInput(CellularMatrix matrix) {
+    public void spawnElementByInput(CellularMatrix matrix, int screenX, int screenY) {
             Vector3 touchPos = new Vector3();
-            touchPos.set(Gdx.input.getX(), Gdx.input.getY(), 0);
+            touchPos.set(screenX, screenY, 0);
             camera.unproject(touchPos);
             switch (mouseMode) {
                 case SPAWN:
@@ -257,9 +296,9 @@ public class InputManager {
 //            touchedLastFrame = false;
     }
 
-    public void touchUpLMB(CellularMatrix matrix) {
+    public void touchUpLMB(CellularMatrix matrix, int screenX, int screenY) {
         Vector3 touchPos = new Vector3();
-        touchPos.set(Gdx.input.getX(), Gdx.input.getY(), 0);
+        touchPos.set(screenX, screenY, 0);
         camera.unproject(touchPos);
         switch (mouseMode) {
             case RECTANGLE:
@@ -354,7 +393,7 @@ public class InputManager {
         try {
             File folder = new File("customphysicsobjects");
             File[] listOfFiles = folder.listFiles();
-            int index = (int) Math.floor(Math.random() * listOfFiles.length);
+            int index = (int) Math.floor(WorldRandom.nextDouble() * listOfFiles.length);
             File selectedFile = listOfFiles[index];
             Path filePath = Paths.get(selectedFile.toString());
             List<String> object = Files.readAllLines(filePath, StandardCharsets.UTF_8);
@@ -385,11 +424,9 @@ public class InputManager {
 
 
     public boolean getIsPaused() {
-        boolean stepOneFrame = false;
-        if (Gdx.input.isKeyJustPressed(Input.Keys.RIGHT)) {
-            stepOneFrame = true;
-        }
-        return paused && !stepOneFrame;
+        boolean stepThisFrame = stepOneFrame;
+        stepOneFrame = false;
+        return paused && !stepThisFrame;
     }
 
     public void setIsPaused(boolean isPaused) {
@@ -400,11 +437,25 @@ public class InputManager {
         paused = !paused;
     }
 
-    public void save(CellularMatrix matrix) {
+    /**
+     * Polls the keys that have to be seen on the frame they are pressed, even when no tick
+     * boundary falls on that frame. The requests are acted on by save, load and getIsPaused.
+     */
+    public void pollTickKeys() {
         if (Gdx.input.isKeyJustPressed(Input.Keys.K) && !readyToSave) {
             paused = true;
             Gdx.input.getTextInput(saveLevelNameListener, "Save Level", "File Name", "");
         }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.L)) {
+            paused = true;
+            Gdx.input.getTextInput(loadLevelNameListener, "Load Level", "File Name", "");
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.RIGHT)) {
+            stepOneFrame = true;
+        }
+    }
+
+    public void save(CellularMatrix matrix) {
         if (readyToSave) {
             Path newPath = savePath.resolve(fileNameForLevel + ".ser");
             if (!Files.exists(newPath)) {
@@ -423,7 +474,7 @@ public class InputManager {
                 int currentClassCount;
                 StringBuilder builder = new StringBuilder();
                 for (int r = 0; r < matrix.outerArraySize; r++) {
-                    Array<Element> row = matrix.getRow(r);
+                    GridRow row = matrix.getRow(r);
                     lastClass = row.get(0).getClass().getSimpleName();
                     currentClassCount = 0;
                     for (int e = 0; e < row.size; e++) {
@@ -457,10 +508,6 @@ public class InputManager {
     }
 
     public void load(CellularMatrix matrix) {
-        if (Gdx.input.isKeyJustPressed(Input.Keys.L)) {
-            paused = true;
-            Gdx.input.getTextInput(loadLevelNameListener, "Load Level", "File Name", "");
-        }
         if (readyToLoad) {
             try {
                 readyToLoad = false;
@@ -469,7 +516,7 @@ public class InputManager {
                 Path newPath = savePath.resolve(fileNameForLevel + ".ser");
                 String level = Files.readAllLines(newPath, StandardCharsets.UTF_8).get(0);
                 String[] splitLevel = level.split(",");
-                Array<Element> row = matrix.getRow(0);
+                GridRow row = matrix.getRow(0);
                 int lastElementIndex = 0;
                 int rowIndex = 0;
                 for (int i = 0; i < splitLevel.length; i += 2) {
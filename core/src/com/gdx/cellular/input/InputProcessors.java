@@ -8,6 +8,7 @@ import com.gdx.cellular.input.processors.CreatorInputProcessor;
 import com.gdx.cellular.input.processors.MenuInputProcessor;
 import com.gdx.cellular.input.processors.PlayerInputProcessor;
 import com.gdx.cellular.util.GameManager;
+import com.gdx.cellular.util.SimulationThread;
 
 public class InputProcessors {
 
@@ -15,10 +16,10 @@ public class InputProcessors {
     private final InputProcessor creatorInputProcessor;
     private final InputProcessor playerInputProcessor;
 
-    public InputProcessors(InputManager inputManager, CellularMatrix matrix, OrthographicCamera camera, GameManager gameManager) {
+    public InputProcessors(InputManager inputManager, CellularMatrix matrix, OrthographicCamera camera, GameManager gameManager, SimulationThread simulation) {
         this.inputManager = inputManager;
-        this.playerInputProcessor = new PlayerInputProcessor(this, gameManager);
-        this.creatorInputProcessor = new CreatorInputProcessor(this, inputManager, camera, matrix);
+        this.playerInputProcessor = new PlayerInputProcessor(this, gameManager, simulation);
+        this.creatorInputProcessor = new CreatorInputProcessor(this, inputManager, camera, matrix, simulation);
         this.inputManager.setCreatorInputProcessor(creatorInputProcessor);
         Gdx.input.setInputProcessor(creatorInputProcessor);
     }
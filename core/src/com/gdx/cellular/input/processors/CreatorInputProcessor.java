@@ -1,28 +1,39 @@
 package com.gdx.cellular.input.processors;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.InputProcessor;
 import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector3;
 import com.gdx.cellular.CellularMatrix;
 import com.gdx.cellular.elements.ElementType;
 import com.gdx.cellular.input.InputElement;
 import com.gdx.cellular.input.InputManager;
 import com.gdx.cellular.input.InputProcessors;
+import com.gdx.cellular.util.SimulationThread;
 
 
 public class CreatorInputProcessor implements InputProcessor {
 
+    // Zoomed out far enough, MatrixActor draws the coarsest mip level, a cell per 8 texels at 1/8 scale.
+    private static final float MIN_ZOOM = 0.125f;
+    private static final float MAX_ZOOM = 64f;
+    private static final float ZOOM_STEP = 1.25f;
+
     private final InputManager inputManager;
     private final OrthographicCamera camera;
     private final CellularMatrix matrix;
     private final InputProcessors parent;
+    private final SimulationThread simulation;
+    private final Vector3 lastPanPos = new Vector3();
 
-    public CreatorInputProcessor(InputProcessors inputProcessors, InputManager inputManager, OrthographicCamera camera, CellularMatrix matrix) {
+    public CreatorInputProcessor(InputProcessors inputProcessors, InputManager inputManager, OrthographicCamera camera, CellularMatrix matrix, SimulationThread simulation) {
         this.parent = inputProcessors;
         this.inputManager = inputManager;
         this.camera = camera;
         this.matrix = matrix;
+        this.simulation = simulation;
     }
 
     @Override
@@ -41,11 +52,15 @@ public class CreatorInputProcessor implements InputProcessor {
             inputManager.setCurrentlySelectedElement(elementType);
         }
         if (keycode == Input.Keys.SPACE) {
-            inputManager.placeSpout(matrix);
+            int screenX = Gdx.input.getX();
+            int screenY = Gdx.input.getY();
+            simulation.submitInput(() -> inputManager.placeSpout(matrix, screenX, screenY));
         }
         if (keycode == Input.Keys.C) {
-            inputManager.clearMatrix(matrix);
-            inputManager.clearBox2dActors();
+            simulation.submitInput(() -> {
+                inputManager.clearMatrix(matrix);
+                inputManager.clearBox2dActors();
+            });
         }
         if (keycode == Input.Keys.P) {
             inputManager.togglePause();
@@ -58,6 +73,11 @@ public class CreatorInputProcessor implements InputProcessor {
 
     @Override
     public boolean scrolled(int amount) {
+        if (Gdx.input.isKeyPressed(Input.Keys.CONTROL_LEFT) || Gdx.input.isKeyPressed(Input.Keys.CONTROL_RIGHT)) {
+            camera.zoom = MathUtils.clamp(camera.zoom * (float) Math.pow(ZOOM_STEP, amount), MIN_ZOOM, MAX_ZOOM);
+            camera.update();
+            return true;
+        }
         inputManager.calculateNewBrushSize(amount * -2);
         return true;
     }
@@ -75,9 +95,11 @@ public class CreatorInputProcessor implements InputProcessor {
     @Override
     public boolean touchDown(int screenX, int screenY, int pointer, int button) {
         if (button == Input.Buttons.LEFT && !inputManager.drawMenu) {
-            inputManager.spawnElementByInput(matrix);
+            simulation.submitInput(() -> inputManager.spawnElementByInput(matrix, screenX, screenY));
+        } else if (button == Input.Buttons.MIDDLE) {
+            camera.unproject(lastPanPos.set(screenX, screenY, 0));
         } else if (button == Input.Buttons.RIGHT) {
-            inputManager.setTouchedLastFrame(false);
+            simulation.submitInput(() -> inputManager.setTouchedLastFrame(false));
             Vector3 pos = camera.unproject(new Vector3(screenX, screenY, 0));
             inputManager.setDrawMenuAndLocation(pos.x, pos.y);
         }
@@ -87,16 +109,25 @@ public class CreatorInputProcessor implements InputProcessor {
     @Override
     public boolean touchUp(int screenX, int screenY, int pointer, int button) {
         if (button == Input.Buttons.LEFT) {
-            inputManager.setTouchedLastFrame(false);
-            inputManager.touchUpLMB(matrix);
+            simulation.submitInput(() -> {
+                inputManager.setTouchedLastFrame(false);
+                inputManager.touchUpLMB(matrix, screenX, screenY);
+            });
         }
         return false;
     }
 
     @Override
     public boolean touchDragged(int screenX, int screenY, int pointer) {
+        if (Gdx.input.isButtonPressed(Input.Buttons.MIDDLE)) {
+            // Moves the camera so the cell grabbed at touchDown stays under the pointer.
+            Vector3 pos = camera.unproject(new Vector3(screenX, screenY, 0));
+            camera.translate(lastPanPos.x - pos.x, lastPanPos.y - pos.y);
+            camera.update();
+            return true;
+        }
         if (!inputManager.drawMenu) {
-            inputManager.spawnElementByInput(matrix);
+            simulation.submitInput(() -> inputManager.spawnElementByInput(matrix, screenX, screenY));
         }
         return false;
     }
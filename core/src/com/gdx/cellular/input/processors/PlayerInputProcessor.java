@@ -5,15 +5,18 @@ import com.badlogic.gdx.InputProcessor;
 import com.gdx.cellular.input.InputProcessors;
 import com.gdx.cellular.player.Player;
 import com.gdx.cellular.util.GameManager;
+import com.gdx.cellular.util.SimulationThread;
 
 public class PlayerInputProcessor implements InputProcessor {
 
     private GameManager gameManager;
     private InputProcessors parent;
+    private SimulationThread simulation;
 
-    public PlayerInputProcessor(InputProcessors inputProcessors, GameManager gameManager) {
+    public PlayerInputProcessor(InputProcessors inputProcessors, GameManager gameManager, SimulationThread simulation) {
         this.parent = inputProcessors;
         this.gameManager = gameManager;
+        this.simulation = simulation;
     }
 
 
@@ -26,11 +29,11 @@ public class PlayerInputProcessor implements InputProcessor {
         }
         Player player1 = gameManager.getPlayer(0);
         if (keycode == Input.Keys.A) {
-            player1.setXVelocity(-62);
+            simulation.submitInput(() -> player1.setXVelocity(-62));
         } else if (keycode == Input.Keys.D) {
-            player1.setXVelocity(62);
+            simulation.submitInput(() -> player1.setXVelocity(62));
         } else if (keycode == Input.Keys.W) {
-            player1.setYVelocity(250);
+            simulation.submitInput(() -> player1.setYVelocity(250));
         }
         return true;
     }
@@ -39,11 +42,11 @@ public class PlayerInputProcessor implements InputProcessor {
     public boolean keyUp(int keycode) {
         Player player1 = gameManager.getPlayer(0);
         if (keycode == Input.Keys.A) {
-            player1.setXVelocity(0);
+            simulation.submitInput(() -> player1.setXVelocity(0));
         } else if (keycode == Input.Keys.D) {
-            player1.setXVelocity(0);
+            simulation.submitInput(() -> player1.setXVelocity(0));
         } else if (keycode == Input.Keys.W) {
-            player1.setYVelocity(0);
+            simulation.submitInput(() -> player1.setYVelocity(0));
         }
         return true;
     }
@@ -10,14 +10,21 @@ import com.gdx.cellular.elements.gas.Gas;
 import com.gdx.cellular.elements.liquid.Liquid;
 import com.gdx.cellular.elements.solid.immoveable.ImmovableSolid;
 import com.gdx.cellular.elements.solid.movable.MovableSolid;
+import com.gdx.cellular.util.WorldRandom;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 public class Explosion {
 
+    public static final Comparator<Explosion> ORDER = Comparator.<Explosion>comparingInt(explosion -> explosion.matrixY)
+            .thenComparingInt(explosion -> explosion.matrixX)
+            .thenComparingInt(explosion -> explosion.radius)
+            .thenComparingInt(explosion -> explosion.strength);
+
     private final CellularMatrix matrix;
     public int radius;
     public int strength;
@@ -59,7 +66,7 @@ public class Explosion {
         for (int x = radius; x >= radius * -1; x--) {
             for (int y = radius; y >= radius * -1; y--) {
                 if (Math.abs(x) == radius || Math.abs(y) == radius) {
-                    //if (Math.random() < 0.05)
+                    //if (WorldRandom.nextDouble() < 0.05)
                         iterateBetweenTwoPoints(matrixX, matrixY, matrixX + x, matrixY + y, strength, coordinatesCache, matrix);
                 }
             }
@@ -122,14 +129,14 @@ public class Explosion {
                     Element element = matrix.get(currentX, currentY);
                     darkenElement(element, ((float) distance)/localRadius);
                     cache.put(String.valueOf(currentX) + currentY, String.valueOf(false));
-                    if (Math.random() > .8) {
+                    if (WorldRandom.nextDouble() > .8) {
                         break;
                     }
                     continue;
                 }
                 Element element = matrix.get(currentX, currentY);
                 if (element instanceof EmptyCell) {
-                    if (Math.random() > 0.5) {
+                    if (WorldRandom.nextDouble() > 0.5) {
                         matrix.setElementAtIndex(currentX, currentY, ElementType.EXPLOSIONSPARK.createElementByMatrix(currentX, currentY));
                     }
                     cache.put(String.valueOf(currentX) + currentY, String.valueOf(true));
@@ -147,15 +154,16 @@ public class Explosion {
                 if (onlyDarken) {
                     Element element = matrix.get(currentX, currentY);
                     element.darkenColor(((float) distance)/localRadius);
+                    matrix.wakeCell(currentX, currentY);
                     cache.put(String.valueOf(currentX) + currentY, String.valueOf(false));
-                    if (Math.random() > .6) {
+                    if (WorldRandom.nextDouble() > .6) {
                         break;
                     }
                     continue;
                 }
                 Element element = matrix.get(currentX, currentY);
                 if (element instanceof EmptyCell) {
-                    if (Math.random() > 0.5) {
+                    if (WorldRandom.nextDouble() > 0.5) {
                         matrix.setElementAtIndex(currentX, currentY, ElementType.EXPLOSIONSPARK.createElementByMatrix(currentX, currentY));
                     }
                     cache.put(String.valueOf(currentX) + currentY, String.valueOf(true));
@@ -167,7 +175,7 @@ public class Explosion {
                 Vector2 newPoint = new Vector2(currentX, currentY);
                 newPoint.sub(center).nor();
                 matrix.particalizeByMatrix(currentX, currentY, new Vector3(newPoint.x * radius * 5, newPoint.y  * radius * 5, 0));
-                if (Math.random() > .8) {
+                if (WorldRandom.nextDouble() > .8) {
                     break;
                 }
             }
@@ -175,21 +183,22 @@ public class Explosion {
     }
 
     private int getRandomVariation(int radius) {
-        if (Math.random() > 0.5f) {
+        if (WorldRandom.nextDouble() > 0.5f) {
             return 1;
         } else {
             return -1;
         }
-//        if (Math.random() > 0.5f) {
-//            return (int) (Math.random() * (Math.max(radius/5, 1)));
+//        if (WorldRandom.nextDouble() > 0.5f) {
+//            return (int) (WorldRandom.nextDouble() * (Math.max(radius/5, 1)));
 //        } else {
-//            return (int) (Math.random() * -(Math.max(radius/5, 1)));
+//            return (int) (WorldRandom.nextDouble() * -(Math.max(radius/5, 1)));
 //        }
     }
 
     // Intellij says the casts to subclasses are redundant. But the overriden method definition
     // in the subclass is not called unless the cast is performed.
     private void darkenElement(Element element, float factor) {
+        matrix.wakeCell(element);
         if (element instanceof MovableSolid) {
             ((MovableSolid) element).darkenColor(factor);
         } else if (element instanceof Liquid) {
@@ -1,7 +1,6 @@
 package com.gdx.cellular.particles;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.math.Vector3;
 import com.gdx.cellular.CellularAutomaton;
 import com.gdx.cellular.CellularMatrix;
@@ -11,12 +10,13 @@ import com.gdx.cellular.elements.EmptyCell;
 import com.gdx.cellular.elements.gas.Gas;
 import com.gdx.cellular.elements.liquid.Liquid;
 import com.gdx.cellular.elements.solid.Solid;
+import com.gdx.cellular.util.WorldRandom;
 
 public class Particle extends Element {
 
     public ElementType containedElementType;
 
-    public Particle(int x, int y, Vector3 vel, ElementType elementType, Color color, boolean isIgnited) {
+    public Particle(int x, int y, Vector3 vel, ElementType elementType, int color, boolean isIgnited) {
         super(x, y);
         if (ElementType.PARTICLE.equals(elementType)) {
             throw new IllegalStateException("Containing element cannot be particle");
@@ -91,8 +91,7 @@ public class Particle extends Element {
 
     @Override
     public void step(CellularMatrix matrix) {
-        if (stepped.get(0) == CellularAutomaton.stepped.get(0)) return;
-        stepped.flip(0);
+        if (!markStepped()) return;
         if (vel.y > -64 && vel.y < 32) {
             vel.y = -64;
         }
@@ -105,8 +104,10 @@ public class Particle extends Element {
 
         int yModifier = vel.y < 0 ? -1 : 1;
         int xModifier = vel.x < 0 ? -1 : 1;
-        int velYDeltaTime = (int) (Math.abs(vel.y) * Gdx.graphics.getDeltaTime());
-        int velXDeltaTime = (int) (Math.abs(vel.x) * Gdx.graphics.getDeltaTime());
+        // A deterministic run cannot depend on how long the last frame took.
+        float deltaTime = WorldRandom.deterministic ? 1/60f : Gdx.graphics.getDeltaTime();
+        int velYDeltaTime = (int) (Math.abs(vel.y) * deltaTime);
+        int velXDeltaTime = (int) (Math.abs(vel.x) * deltaTime);
 
         boolean xDiffIsLarger = Math.abs(velXDeltaTime) > Math.abs(velYDeltaTime);
 
@@ -1,6 +1,5 @@
 package com.gdx.cellular.player;
 
-import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.Array;
@@ -187,9 +186,7 @@ public class Player {
                 matrix.setElementAtIndex(worldX + x, worldY + y, meat);
                 ((PlayerMeat) meat).setOwningPlayer(this);
                 int rgb = this.playerTexture.getRGB(x, y);
-                Color color = new Color();
-                Color.rgba8888ToColor(color, rgb);
-                meat.color = color;
+                meat.color = rgb;
                 innerArray.add(meat);
             }
         }
@@ -4,9 +4,8 @@ import com.badlogic.gdx.math.Vector3;
 import com.gdx.cellular.CellularMatrix.FunctionInput;
 import com.gdx.cellular.elements.ElementType;
 import com.gdx.cellular.input.InputManager;
+import com.gdx.cellular.util.WorldRandom;
 
-
-import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Consumer;
 
 public class ParticleSpout implements Spout {
@@ -44,8 +43,8 @@ public class ParticleSpout implements Spout {
     }
 
     private Vector3 generateRandomVelocity() {
-        int x = ThreadLocalRandom.current().nextInt(-500, 500);
-        int y = ThreadLocalRandom.current().nextInt(-500, 500);
+        int x = WorldRandom.nextInt(-500, 500);
+        int y = WorldRandom.nextInt(-500, 500);
         return new Vector3( x, y, 0);
     }
 }
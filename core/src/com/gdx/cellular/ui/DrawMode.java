@@ -0,0 +1,10 @@
+package com.gdx.cellular.ui;
+
+public enum DrawMode {
+    // A ShapeRenderer rect per same-color run of the dirty tiles, drawn into a frame buffer that keeps the rest.
+    SHAPES,
+    // Dirty tiles rasterized into one texture on the drawing thread.
+    TEXTURE,
+    // Dirty tiles rasterized, and snapshots captured, on the pool that steps the simulation.
+    PARALLEL_TEXTURE
+}
@@ -1,14 +1,25 @@
 package com.gdx.cellular.ui;
 
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.utils.viewport.Viewport;
 import com.gdx.cellular.CellularAutomaton;
 import com.gdx.cellular.CellularMatrix;
+import com.gdx.cellular.grid.CellMipmap;
+import com.gdx.cellular.grid.CellRasterizer;
+import com.gdx.cellular.grid.CellSnapshot;
+import com.gdx.cellular.util.Chunk;
 import com.gdx.cellular.util.ElementColumnStepper;
 import com.gdx.cellular.util.ElementRowDrawer;
+import com.gdx.cellular.util.ElementStepExecutor;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -17,11 +28,26 @@ public class MatrixActor extends Actor {
 
     private final ShapeRenderer shapeRenderer;
     private final CellularMatrix matrix;
+    // When set, the last published snapshot is drawn instead of the grid the simulation thread is stepping.
+    public CellSnapshot snapshot;
+    // Set for PARALLEL_TEXTURE. Only used between ticks, when its workers are not stepping.
+    public ElementStepExecutor stepExecutor;
+    private final CellRasterizer rasterizer;
+    private MatrixTexture texture;
+    // Zoomed out, a mip level is drawn instead. Built on first use and kept up to date only while drawn.
+    private CellMipmap mipmap;
+    private final MatrixTexture[] mipTextures = new MatrixTexture[CellMipmap.LEVELS + 1];
+    private int drawnLevel = 0;
+    // SHAPES draws the dirty tiles into this buffer, which keeps the rest from earlier frames.
+    private FrameBuffer shapeBuffer;
+    private final Matrix4 shapeBufferProjection = new Matrix4();
+    private DrawMode drawnMode;
 //    private final List<ShapeRenderer> shapeRenderers = new ArrayList<>();
 
     public MatrixActor(ShapeRenderer shapeRenderer, CellularMatrix matrix) {
         this.shapeRenderer = shapeRenderer;
         this.matrix = matrix;
+        this.rasterizer = new CellRasterizer(matrix.innerArraySize, matrix.outerArraySize, Chunk.size);
 //        for (int i = 0; i < matrix.drawThreadCount; i++) {
 //            ShapeRenderer sr = new ShapeRenderer();
 //            sr.setAutoShapeType(true);
@@ -31,9 +57,44 @@ public class MatrixActor extends Actor {
 
     @Override
     public void draw (Batch batch, float parentAlpha) {
+        if ((CellularAutomaton.drawMode == DrawMode.SHAPES) != (drawnMode == DrawMode.SHAPES)) {
+            // The tiles collected while the other mode drew never reached this mode's copy of the cells.
+            rasterizer.invalidate();
+        }
+        drawnMode = CellularAutomaton.drawMode;
+        if (CellularAutomaton.drawMode != DrawMode.SHAPES) {
+            drawTexture(batch);
+            return;
+        }
+        int cellSize = matrix.pixelSizeModifier;
+        if (shapeBuffer == null) {
+            shapeBuffer = new FrameBuffer(Pixmap.Format.RGBA8888, matrix.innerArraySize * cellSize, matrix.outerArraySize * cellSize, false);
+            shapeBufferProjection.setToOrtho2D(0, 0, shapeBuffer.getWidth(), shapeBuffer.getHeight());
+        }
+        int minTileColumn = matrix.getViewMinX() / Chunk.size;
+        int minTileRow = matrix.getViewMinY() / Chunk.size;
+        int maxTileColumn = matrix.getViewMaxX() / Chunk.size;
+        int maxTileRow = matrix.getViewMaxY() / Chunk.size;
+        int[] colors = null;
+        boolean dirty;
+        if (snapshot != null) {
+            colors = snapshot.acquire();
+            dirty = rasterizer.collectDirtyTiles(matrix.getTileStamps(), snapshot.getVersion(), minTileColumn, minTileRow, maxTileColumn, maxTileRow);
+        } else {
+            dirty = rasterizer.collectDirtyTiles(matrix.getTileStamps(), matrix.stampRenderTiles(), minTileColumn, minTileRow, maxTileColumn, maxTileRow);
+        }
         batch.end();
-        shapeRenderer.setProjectionMatrix(getStage().getCamera().combined);
-        matrix.drawAll(shapeRenderer);
+        if (dirty) {
+            // Here the rasterizer only tracks which tiles are stale, the cells come from the grid or snapshot.
+            shapeBuffer.begin();
+            Gdx.gl.glDisable(GL20.GL_BLEND);
+            shapeRenderer.setProjectionMatrix(shapeBufferProjection);
+            matrix.drawTiles(shapeRenderer, rasterizer, colors);
+            Gdx.gl.glEnable(GL20.GL_BLEND);
+            Viewport viewport = getStage().getViewport();
+            shapeBuffer.end(viewport.getScreenX(), viewport.getScreenY(), viewport.getScreenWidth(), viewport.getScreenHeight());
+            shapeRenderer.setProjectionMatrix(getStage().getCamera().combined);
+        }
 //        int numThreads = matrix.drawThreadCount;
 //        int rowsToDraw = matrix.outerArraySize / numThreads;
 //        List<Thread> threads = new ArrayList<>(numThreads);
@@ -57,5 +118,95 @@ public class MatrixActor extends Actor {
 //            }
 //        }
         batch.begin();
+        int minX = minTileColumn * Chunk.size * cellSize;
+        int minY = minTileRow * Chunk.size * cellSize;
+        int width = Math.min((maxTileColumn + 1) * Chunk.size, matrix.innerArraySize) * cellSize - minX;
+        int height = Math.min((maxTileRow + 1) * Chunk.size, matrix.outerArraySize) * cellSize - minY;
+        // Frame buffer textures are upside down.
+        batch.draw(shapeBuffer.getColorBufferTexture(), minX, minY, width, height, minX, minY, width, height, false, true);
+    }
+
+    private void drawTexture(Batch batch) {
+        if (texture == null) {
+            texture = new MatrixTexture(matrix.innerArraySize, matrix.outerArraySize, Chunk.size);
+        }
+        // Between ticks nothing else writes the grid, so it can be stamped and read from here.
+        // Snapshot tiles are plain copies, and the pool is busy stepping meanwhile anyway.
+        int minTileColumn = matrix.getViewMinX() / Chunk.size;
+        int minTileRow = matrix.getViewMinY() / Chunk.size;
+        int maxTileColumn = matrix.getViewMaxX() / Chunk.size;
+        int maxTileRow = matrix.getViewMaxY() / Chunk.size;
+        if (snapshot != null) {
+            int[] colors = snapshot.acquire();
+            if (rasterizer.collectDirtyTiles(matrix.getTileStamps(), snapshot.getVersion(), minTileColumn, minTileRow, maxTileColumn, maxTileRow)) {
+                rasterizer.rasterize(colors);
+            }
+        } else if (rasterizer.collectDirtyTiles(matrix.getTileStamps(), matrix.stampRenderTiles(), minTileColumn, minTileRow, maxTileColumn, maxTileRow)) {
+            if (CellularAutomaton.drawMode == DrawMode.PARALLEL_TEXTURE && stepExecutor != null) {
+                matrix.rasterize(rasterizer, stepExecutor);
+            } else {
+                matrix.rasterize(rasterizer);
+            }
+        }
+        batch.flush();
+        int level = CellularAutomaton.levelOfDetail ? levelForZoom() : 0;
+        MatrixTexture levelTexture;
+        if (level == 0) {
+            // Tiles that changed while a mip level was drawn never reached this texture.
+            texture.upload(rasterizer.getPixels(), rasterizer, drawnLevel != 0);
+            levelTexture = texture;
+        } else {
+            if (mipmap == null) {
+                mipmap = new CellMipmap(rasterizer);
+            }
+            if (drawnLevel == 0) {
+                mipmap.rebuild(rasterizer);
+            } else {
+                mipmap.update(rasterizer);
+            }
+            if (mipTextures[level] == null) {
+                mipTextures[level] = new MatrixTexture(mipmap.getWidth(level), mipmap.getHeight(level), Chunk.size >> level);
+            }
+            levelTexture = mipTextures[level];
+            levelTexture.upload(mipmap.getPixels(level), rasterizer, level != drawnLevel);
+        }
+        drawnLevel = level;
+        int levelTileSize = Chunk.size >> level;
+        levelTexture.draw(batch, matrix.pixelSizeModifier << level, minTileColumn * levelTileSize, minTileRow * levelTileSize,
+                Math.min((maxTileColumn + 1) * levelTileSize, mipWidth(level)) - 1,
+                Math.min((maxTileRow + 1) * levelTileSize, mipHeight(level)) - 1);
+    }
+
+    // The coarsest level whose texels are still no bigger than a screen pixel.
+    private int levelForZoom() {
+        OrthographicCamera camera = (OrthographicCamera) getStage().getCamera();
+        float pixelsPerCell = getStage().getViewport().getScreenWidth() / (camera.viewportWidth * camera.zoom) * matrix.pixelSizeModifier;
+        int level = 0;
+        while (level < CellMipmap.LEVELS && pixelsPerCell * (2 << level) <= 1) {
+            level++;
+        }
+        return level;
+    }
+
+    private int mipWidth(int level) {
+        return level == 0 ? matrix.innerArraySize : mipmap.getWidth(level);
+    }
+
+    private int mipHeight(int level) {
+        return level == 0 ? matrix.outerArraySize : mipmap.getHeight(level);
+    }
+
+    public void dispose() {
+        if (texture != null) {
+            texture.dispose();
+        }
+        if (shapeBuffer != null) {
+            shapeBuffer.dispose();
+        }
+        for (MatrixTexture mipTexture : mipTextures) {
+            if (mipTexture != null) {
+                mipTexture.dispose();
+            }
+        }
     }
 }
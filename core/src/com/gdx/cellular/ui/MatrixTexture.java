@@ -0,0 +1,115 @@
+package com.gdx.cellular.ui;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.gdx.cellular.grid.CellRasterizer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * A texture with one texel per cell, drawn as a single quad scaled by the cell size inside
+ * whatever batch is already running, optionally cut down to the cells in view.
+ *
+ * upload sends only the rasterizer's dirty tiles. Neighbouring dirty tiles of a tile row
+ * go up together as one glTexSubImage2D, so the upload size follows the activity in the
+ * world rather than its size.
+ */
+public class MatrixTexture implements Disposable {
+
+    private final int width;
+    private final int height;
+    private final int tileSize;
+    private final Texture texture;
+    // One tile row's worth of pixels, the most a single sub-image upload needs.
+    private final ByteBuffer staging;
+    private final IntBuffer stagingPixels;
+    private int lastUploadedTiles;
+
+    public MatrixTexture(int width, int height, int tileSize) {
+        this.width = width;
+        this.height = height;
+        this.tileSize = tileSize;
+        this.texture = new Texture(width, height, Pixmap.Format.RGBA8888);
+        texture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        this.staging = BufferUtils.newUnsafeByteBuffer(width * tileSize * 4);
+        // Big-endian ints put the RGBA8888 channels in the byte order GL_RGBA expects.
+        this.stagingPixels = staging.order(ByteOrder.BIG_ENDIAN).asIntBuffer();
+    }
+
+    /**
+     * Uploads the rasterizer's dirty tiles. Binds the texture, so a running batch must be flushed first.
+     */
+    public void upload(CellRasterizer rasterizer) {
+        upload(rasterizer.getPixels(), rasterizer, false);
+    }
+
+    /**
+     * Uploads texels laid out like this texture, top row first, for the tiles that are dirty in
+     * the rasterizer, or for every tile. The rasterizer's tile grid also fits every mip level of
+     * it, as long as tileSize was scaled down with the level.
+     */
+    public void upload(int[] pixels, CellRasterizer tiles, boolean all) {
+        lastUploadedTiles = all ? tiles.getTileCount() : tiles.getDirtyTileCount();
+        if (lastUploadedTiles == 0) {
+            return;
+        }
+        texture.bind();
+        Gdx.gl.glPixelStorei(GL20.GL_UNPACK_ALIGNMENT, 4);
+        for (int tileRow = 0; tileRow < tiles.getTileRows(); tileRow++) {
+            int minY = tileRow * tileSize;
+            int maxY = Math.min(minY + tileSize, height) - 1;
+            int tileColumn = 0;
+            while (tileColumn < tiles.getTileColumns()) {
+                if (!all && !tiles.isTileDirty(tileColumn, tileRow)) {
+                    tileColumn++;
+                    continue;
+                }
+                int firstColumn = tileColumn;
+                while (tileColumn < tiles.getTileColumns() && (all || tiles.isTileDirty(tileColumn, tileRow))) {
+                    tileColumn++;
+                }
+                int minX = firstColumn * tileSize;
+                int runWidth = Math.min(tileColumn * tileSize, width) - minX;
+                // Texture rows run top down, so the run starts at the pixel row of maxY.
+                stagingPixels.clear();
+                for (int y = maxY; y >= minY; y--) {
+                    stagingPixels.put(pixels, (height - 1 - y) * width + minX, runWidth);
+                }
+                staging.position(0);
+                Gdx.gl.glTexSubImage2D(GL20.GL_TEXTURE_2D, 0, minX, height - 1 - maxY, runWidth, maxY - minY + 1,
+                        GL20.GL_RGBA, GL20.GL_UNSIGNED_BYTE, staging);
+            }
+        }
+    }
+
+    public int getLastUploadedTiles() {
+        return lastUploadedTiles;
+    }
+
+    public void draw(Batch batch, float cellSize) {
+        draw(batch, cellSize, 0, 0, width - 1, height - 1);
+    }
+
+    /**
+     * Draws only the cells from minX, minY to maxX, maxY, inclusive and in matrix coordinates.
+     */
+    public void draw(Batch batch, float cellSize, int minX, int minY, int maxX, int maxY) {
+        int cellsWide = maxX - minX + 1;
+        int cellsHigh = maxY - minY + 1;
+        batch.draw(texture, minX * cellSize, minY * cellSize, cellsWide * cellSize, cellsHigh * cellSize,
+                minX, height - 1 - maxY, cellsWide, cellsHigh, false, false);
+    }
+
+    @Override
+    public void dispose() {
+        texture.dispose();
+        BufferUtils.disposeUnsafeByteBuffer(staging);
+    }
+}
@@ -0,0 +1,45 @@
+package com.gdx.cellular.ui;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import com.gdx.cellular.util.StepAutotuner;
+
+public class MetricsActor extends Actor {
+
+    public StepAutotuner autotuner;
+    public boolean enabled = true;
+    public Skin skin;
+    public Label metricsLabel;
+    public Label decisionLabel;
+    public int pixelX;
+    public int pixelY;
+
+    public MetricsActor(StepAutotuner autotuner, int x, int y) {
+        this.autotuner = autotuner;
+        this.skin = Skins.getSkin("uiskin");
+        this.metricsLabel = new Label("Autotune", skin);
+        this.decisionLabel = new Label("", skin);
+        this.pixelX = x;
+        this.pixelY = y;
+    }
+
+    @Override
+    public void draw(Batch batch, float parentAlpha) {
+        if (!enabled) {
+            this.metricsLabel.setText("Autotune: OFF");
+        } else {
+            this.metricsLabel.setText("Autotune: " + this.autotuner.metrics);
+        }
+        this.metricsLabel.setX(pixelX);
+        this.metricsLabel.setY(pixelY);
+        this.metricsLabel.draw(batch, 1);
+        if (enabled) {
+            this.decisionLabel.setText("Last decision: " + this.autotuner.lastDecision);
+            this.decisionLabel.setX(pixelX);
+            this.decisionLabel.setY(pixelY - this.metricsLabel.getHeight()/1.5f);
+            this.decisionLabel.draw(batch, 1);
+        }
+    }
+}
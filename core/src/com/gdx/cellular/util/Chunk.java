@@ -2,30 +2,31 @@ package com.gdx.cellular.util;
 
 import com.badlogic.gdx.math.Vector3;
 import com.gdx.cellular.boids.Boid;
+import com.gdx.cellular.grid.ChunkActivity;
 
 import java.util.ArrayList;
-import java.util.Enumeration;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
 public class Chunk {
 
     public static int size = 32;
 
-    private boolean shouldStep = true;
-    private boolean shouldStepNextFrame = true;
+    private final int id;
+    private final ChunkActivity activity;
     private Vector3 topLeft;
     private Vector3 bottomRight;
-    private ConcurrentHashMap<Boid, String> boidMap = new ConcurrentHashMap<>();
+    private final Set<Boid> boids = ConcurrentHashMap.newKeySet();
+    private boolean active = true;
 
-    public Chunk(Vector3 topLeft, Vector3 bottomRight) {
-        this.topLeft = topLeft;
-        this.bottomRight = bottomRight;
+    public Chunk(int id, ChunkActivity activity) {
+        this.id = id;
+        this.activity = activity;
     }
 
-    public Chunk() {
-
+    public int getId() {
+        return id;
     }
 
     public void setTopLeft(Vector3 topLeft) {
@@ -37,19 +38,79 @@ public class Chunk {
     }
 
     public void setShouldStep(boolean shouldStep) {
-        this.shouldStep = shouldStep;
+        activity.set(id, shouldStep ? ChunkActivity.pack(0, 0, getMaxX() - getMinX(), getMaxY() - getMinY()) : ChunkActivity.EMPTY);
     }
 
     public boolean getShouldStep() {
-        return this.shouldStep;
+        return !ChunkActivity.isEmpty(activity.get(id));
     }
 
     public void setShouldStepNextFrame(boolean shouldStepNextFrame) {
-        this.shouldStepNextFrame = shouldStepNextFrame;
+        if (shouldStepNextFrame) {
+            markDirty(getMinX(), getMinY(), getMaxX(), getMaxY());
+        }
     }
 
     public boolean getShouldStepNextFrame() {
-        return this.shouldStepNextFrame;
+        return !ChunkActivity.isEmpty(activity.getNext(id));
+    }
+
+    /**
+     * Grows next frame's dirty rectangle to cover the given cells, clipped to this chunk.
+     * Safe to call from any stepper thread.
+     */
+    public void markDirty(int minX, int minY, int maxX, int maxY) {
+        int originX = getMinX();
+        int originY = getMinY();
+        int localMinX = Math.max(minX, originX) - originX;
+        int localMinY = Math.max(minY, originY) - originY;
+        int localMaxX = Math.min(maxX, getMaxX()) - originX;
+        int localMaxY = Math.min(maxY, getMaxY()) - originY;
+        if (localMinX > localMaxX || localMinY > localMaxY) {
+            return;
+        }
+        activity.markDirty(id, ChunkActivity.pack(localMinX, localMinY, localMaxX, localMaxY));
+    }
+
+    public boolean isDirty(int x, int y) {
+        int rect = activity.get(id);
+        int localX = x - getMinX();
+        int localY = y - getMinY();
+        return localX >= ChunkActivity.minX(rect) && localX <= ChunkActivity.maxX(rect)
+                && localY >= ChunkActivity.minY(rect) && localY <= ChunkActivity.maxY(rect);
+    }
+
+    // Dirty rectangle in matrix coordinates, inclusive. Only meaningful when getShouldStep is true.
+    public int getDirtyMinX() {
+        return getMinX() + ChunkActivity.minX(activity.get(id));
+    }
+
+    public int getDirtyMinY() {
+        return getMinY() + ChunkActivity.minY(activity.get(id));
+    }
+
+    public int getDirtyMaxX() {
+        return getMinX() + ChunkActivity.maxX(activity.get(id));
+    }
+
+    public int getDirtyMaxY() {
+        return getMinY() + ChunkActivity.maxY(activity.get(id));
+    }
+
+    public int getMinX() {
+        return (int) topLeft.x;
+    }
+
+    public int getMinY() {
+        return (int) topLeft.y;
+    }
+
+    public int getMaxX() {
+        return (int) bottomRight.x - 1;
+    }
+
+    public int getMaxY() {
+        return (int) bottomRight.y - 1;
     }
 
     public void setBottomRight(Vector3 bottomRight) {
@@ -60,24 +121,30 @@ public class Chunk {
         return bottomRight;
     }
 
-    public void shiftShouldStepAndReset() {
-        this.shouldStep = this.shouldStepNextFrame;
-        this.shouldStepNextFrame = false;
+    /**
+     * Whether any cell in this chunk steps this frame. Set once per frame by CellularMatrix.updateActiveChunks.
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
     }
 
     public void addBoid(Boid boid) {
-        this.boidMap.put(boid, "");
+        this.boids.add(boid);
     }
 
     public void removeBoid(Boid boid) {
-        this.boidMap.remove(boid);
+        this.boids.remove(boid);
     }
 
     public List<Boid> getAllBoids() {
-        return new ArrayList<>(this.boidMap.keySet());
+        return new ArrayList<>(this.boids);
     }
 
     public void removeAllBoids() {
-        this.boidMap.clear();
+        this.boids.clear();
     }
 }
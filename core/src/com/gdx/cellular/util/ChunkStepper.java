@@ -0,0 +1,47 @@
+package com.gdx.cellular.util;
+
+import com.gdx.cellular.CellularMatrix;
+
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Steps a range of chunks by splitting it in half until at most grain chunks are left. The
+ * halves are forked onto the worker's own deque, so idle workers steal whatever is left when
+ * the activity is bunched up in one part of the world. A larger grain means fewer, longer tasks.
+ */
+public class ChunkStepper extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    public CellularMatrix matrix;
+    public List<Chunk> chunks;
+    public int from;
+    public int to;
+    public int grain;
+    public LongAdder busyNanos;
+
+    public ChunkStepper(CellularMatrix matrix, List<Chunk> chunks, int from, int to, int grain, LongAdder busyNanos) {
+        this.matrix = matrix;
+        this.chunks = chunks;
+        this.from = from;
+        this.to = to;
+        this.grain = grain;
+        this.busyNanos = busyNanos;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= grain) {
+            long start = System.nanoTime();
+            for (int i = from; i < to; i++) {
+                matrix.stepChunk(chunks.get(i));
+            }
+            busyNanos.add(System.nanoTime() - start);
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        invokeAll(new ChunkStepper(matrix, chunks, from, middle, grain, busyNanos), new ChunkStepper(matrix, chunks, middle, to, grain, busyNanos));
+    }
+}
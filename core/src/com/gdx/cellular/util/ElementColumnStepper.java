@@ -1,12 +1,18 @@
 package com.gdx.cellular.util;
 
+import com.badlogic.gdx.utils.Array;
 import com.gdx.cellular.CellularMatrix;
+import com.gdx.cellular.elements.Element;
 
-public class ElementColumnStepper implements Runnable {
+import java.util.concurrent.Callable;
+
+public class ElementColumnStepper implements Runnable, Callable<Void> {
 
 
     public CellularMatrix matrix;
     public int colIndex;
+    // Elements near the stripe edges, stepped after every stripe is done.
+    public final Array<Element> haloElements = new Array<>(false, 64);
 
     public ElementColumnStepper(CellularMatrix matrix, int colIndex) {
         this.matrix = matrix;
@@ -15,6 +21,12 @@ public class ElementColumnStepper implements Runnable {
 
     @Override
     public void run() {
-        matrix.stepProvidedColumns(colIndex);
+        matrix.stepProvidedColumns(colIndex, haloElements);
+    }
+
+    @Override
+    public Void call() {
+        run();
+        return null;
     }
 }
@@ -0,0 +1,249 @@
+package com.gdx.cellular.util;
+
+import com.badlogic.gdx.utils.Array;
+import com.gdx.cellular.CellularMatrix;
+import com.gdx.cellular.elements.Element;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Long-lived workers for the multithreaded step. Each pass waits for all of its tasks
+ * before the next one starts, so the tasks of different passes never overlap.
+ *
+ * With COLUMNS, every column stripe runs in one pass. An element close enough to the
+ * edge of its stripe to reach into the next one is queued by its stripe instead of
+ * stepped, and the queues are stepped one after the other at the pass barrier; how
+ * close is close enough depends on the element's speed. With CHECKERBOARD,
+ * chunks run in four passes chosen by the parity of their column and row. Chunks of
+ * one pass are a chunk apart, so an element may move up to half a chunk out of its own
+ * chunk without meeting a write from another task of the same pass. Faster elements are
+ * queued by their chunk and stepped one after the other once the passes are done, as the
+ * column halos are. Only the chunks the
+ * matrix marked active are handed to the pool, so idle parts of the world cost nothing.
+ *
+ * With INTENTS, all active chunks run in one pass while the matrix buffers every grid
+ * write as a move intent, and the intents are resolved on the calling thread afterwards.
+ * No worker ever writes to the grid, so no spacing between chunks is needed.
+ *
+ * The pool and the column steppers are only rebuilt when the thread count changes.
+ *
+ * Every step records its wall time per pass and the time the workers spent inside
+ * steppers, which StepAutotuner turns into worker idle time.
+ *
+ * Between steps the same workers rasterize render tiles through forEachTileRange.
+ */
+public class ElementStepExecutor {
+
+    private final CellularMatrix matrix;
+    private final List<ElementColumnStepper> columnSteppers = new ArrayList<>();
+    private final List<Callable<Void>> timedColumnSteppers = new ArrayList<>();
+    private ForkJoinPool pool;
+    private int threadCount;
+    // Chunks per leaf task of a checkerboard pass.
+    private int grain = 1;
+    private final LongAdder busyNanos = new LongAdder();
+    private final long[] passNanos = new long[5];
+    private int passCount;
+    private long lastBusyNanos;
+    private int lastTaskCount;
+    private int lastChunkCount;
+    private final List<Chunk> allActiveChunks = new ArrayList<>();
+    // Render tiles per leaf task of forEachTileRange.
+    private static final int TILE_GRAIN = 4;
+
+    public ElementStepExecutor(CellularMatrix matrix, int threadCount) {
+        this.matrix = matrix;
+        setThreadCount(threadCount);
+    }
+
+    public void setThreadCount(int threadCount) {
+        if (threadCount == this.threadCount && pool != null) {
+            return;
+        }
+        if (pool != null) {
+            pool.shutdown();
+        }
+        this.threadCount = threadCount;
+        this.pool = new ForkJoinPool(threadCount);
+        columnSteppers.clear();
+        timedColumnSteppers.clear();
+        for (int t = 0; t < threadCount; t++) {
+            ElementColumnStepper stepper = new ElementColumnStepper(matrix, t);
+            columnSteppers.add(stepper);
+            timedColumnSteppers.add(() -> {
+                long start = System.nanoTime();
+                stepper.call();
+                busyNanos.add(System.nanoTime() - start);
+                return null;
+            });
+        }
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public void setGrain(int grain) {
+        this.grain = Math.max(grain, 1);
+    }
+
+    public int getGrain() {
+        return grain;
+    }
+
+    /**
+     * Number of passes the last step ran; getPassNanos is valid below it.
+     */
+    public int getPassCount() {
+        return passCount;
+    }
+
+    public long getPassNanos(int pass) {
+        return passNanos[pass];
+    }
+
+    /**
+     * Time the workers spent stepping during the last step, summed over all workers.
+     */
+    public long getBusyNanos() {
+        return lastBusyNanos;
+    }
+
+    public int getTaskCount() {
+        return lastTaskCount;
+    }
+
+    public int getChunkCount() {
+        return lastChunkCount;
+    }
+
+    public void stepColumns(boolean reverseHalo) {
+        runPass(timedColumnSteppers);
+        lastTaskCount = threadCount;
+        // The halo queues run serially, from alternating ends so no stripe edge always goes first.
+        long start = System.nanoTime();
+        for (int i = 0; i < columnSteppers.size(); i++) {
+            Array<Element> haloElements = columnSteppers.get(reverseHalo ? columnSteppers.size() - 1 - i : i).haloElements;
+            if (reverseHalo) {
+                haloElements.reverse();
+            }
+            matrix.stepHaloElements(haloElements);
+        }
+        long haloNanos = System.nanoTime() - start;
+        passNanos[passCount++] = haloNanos;
+        busyNanos.add(haloNanos);
+    }
+
+    public void stepChunks(int firstPass) {
+        for (int i = 0; i < 4; i++) {
+            List<Chunk> activeChunks = matrix.getActiveChunksForPass((firstPass + i) % 4);
+            if (activeChunks.isEmpty()) {
+                continue;
+            }
+            long start = System.nanoTime();
+            try {
+                pool.invoke(new ChunkStepper(matrix, activeChunks, 0, activeChunks.size(), grain, busyNanos));
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+            passNanos[passCount++] = System.nanoTime() - start;
+            lastTaskCount += leafCount(activeChunks.size());
+        }
+        long start = System.nanoTime();
+        matrix.stepFarMovers(firstPass);
+        long farMoverNanos = System.nanoTime() - start;
+        passNanos[passCount++] = farMoverNanos;
+        busyNanos.add(farMoverNanos);
+    }
+
+    public void stepIntents(int frame) {
+        allActiveChunks.clear();
+        for (int pass = 0; pass < 4; pass++) {
+            allActiveChunks.addAll(matrix.getActiveChunksForPass(pass));
+        }
+        if (allActiveChunks.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        matrix.beginProposingMoves();
+        try {
+            pool.invoke(new ChunkStepper(matrix, allActiveChunks, 0, allActiveChunks.size(), grain, busyNanos));
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+        passNanos[passCount++] = System.nanoTime() - start;
+        lastTaskCount += leafCount(allActiveChunks.size());
+        start = System.nanoTime();
+        matrix.resolveMoves(frame);
+        // Resolving is serial, so it counts as a pass in which one worker is busy.
+        long resolveNanos = System.nanoTime() - start;
+        passNanos[passCount++] = resolveNanos;
+        busyNanos.add(resolveNanos);
+    }
+
+    public void step(StepScheduler scheduler, int frame) {
+        passCount = 0;
+        lastTaskCount = 0;
+        lastChunkCount = matrix.getActiveChunkCount();
+        busyNanos.reset();
+        switch (scheduler) {
+            case INTENTS:
+                stepIntents(frame);
+                break;
+            case CHECKERBOARD:
+                stepChunks(frame % 4);
+                break;
+            case COLUMNS:
+            default:
+                stepColumns(frame % 2 == 0);
+                break;
+        }
+        lastBusyNanos = busyNanos.sum();
+    }
+
+    // Leaf tasks ChunkStepper splits a range of this many chunks into.
+    private int leafCount(int chunkCount) {
+        if (chunkCount <= grain) {
+            return 1;
+        }
+        int half = chunkCount >>> 1;
+        return leafCount(half) + leafCount(chunkCount - half);
+    }
+
+    private void runPass(List<Callable<Void>> steppers) {
+        if (steppers.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        for (Future<Void> future : pool.invokeAll(steppers)) {
+            try {
+                future.get();
+            } catch (InterruptedException | ExecutionException e) {
+                e.printStackTrace();
+            }
+        }
+        passNanos[passCount++] = System.nanoTime() - start;
+    }
+
+    /**
+     * Runs the action over tiles 0 to tileCount on the workers. Must not overlap a step or a
+     * thread count change, as it shares their pool.
+     */
+    public void forEachTileRange(int tileCount, TileTask.TileRange range) {
+        try {
+            pool.invoke(new TileTask(range, 0, tileCount, TILE_GRAIN));
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
@@ -4,19 +4,24 @@ import com.badlogic.gdx.graphics.Pixmap;
 
 public class MaterialMap {
 
-    Pixmap img;
+    private final int[] pixels;
     public int w;
     public int h;
 
     public MaterialMap(Pixmap img) {
-        this.img = img;
         this.w = img.getWidth();
         this.h = img.getHeight();
+        this.pixels = new int[w * h];
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                pixels[y * w + x] = img.getPixel(x, y);
+            }
+        }
     }
 
     public int getRGB(int x, int y) {
         int relativeX = x == 0 ? 0 : Math.abs(x) % w;
         int relativeY = y == 0 ? 0 : Math.abs(y) % h;
-        return img.getPixel(relativeX, relativeY);
+        return pixels[relativeY * w + relativeX];
     }
 }
@@ -0,0 +1,210 @@
+package com.gdx.cellular.util;
+
+import com.gdx.cellular.elements.Element;
+
+import java.util.Arrays;
+
+/**
+ * One stepper thread's buffer of move intents for the INTENTS scheduler.
+ *
+ * Each element step is one intent: the grid writes the step wanted to make, in order,
+ * plus the element and the cell it stepped from. Intents are keyed by chunk id and
+ * step order, so the resolve phase can apply them in the same order every frame no
+ * matter which thread proposed them. Reads during a step see the step's own writes
+ * through read, everything else sees the grid as it was at the start of the frame.
+ * The elements a step kills are kept with its intent too, since their dead flag is set
+ * right away and has to be undone if the intent is dropped.
+ *
+ * Only the owning thread writes to a buffer; the resolve phase reads them all after
+ * every worker has finished.
+ */
+public class MoveIntents {
+
+    private int intentCount;
+    private long[] keys = new long[256];
+    private Element[] steppers = new Element[256];
+    private int[] originX = new int[256];
+    private int[] originY = new int[256];
+    private int[] firstWrite = new int[257];
+
+    private int writeCount;
+    private int[] writeX = new int[512];
+    private int[] writeY = new int[512];
+    private Element[] writeElements = new Element[512];
+
+    private int killCount;
+    private Element[] killed = new Element[64];
+    private int[] firstKill = new int[257];
+
+    private long chunkKey;
+    private int sequence;
+    private boolean open;
+
+    public void startChunk(int chunkId) {
+        chunkKey = (long) chunkId << 32;
+        sequence = 0;
+    }
+
+    public void begin(Element stepper, int x, int y) {
+        if (intentCount == keys.length) {
+            int capacity = intentCount * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            steppers = Arrays.copyOf(steppers, capacity);
+            originX = Arrays.copyOf(originX, capacity);
+            originY = Arrays.copyOf(originY, capacity);
+            firstWrite = Arrays.copyOf(firstWrite, capacity + 1);
+            firstKill = Arrays.copyOf(firstKill, capacity + 1);
+        }
+        keys[intentCount] = chunkKey | sequence++;
+        steppers[intentCount] = stepper;
+        originX[intentCount] = x;
+        originY[intentCount] = y;
+        firstWrite[intentCount] = writeCount;
+        firstKill[intentCount] = killCount;
+        open = true;
+    }
+
+    public void write(int x, int y, Element element) {
+        if (!open) {
+            throw new IllegalStateException("Grid write outside of an element step while proposing moves");
+        }
+        if (writeCount == writeX.length) {
+            int capacity = writeCount * 2;
+            writeX = Arrays.copyOf(writeX, capacity);
+            writeY = Arrays.copyOf(writeY, capacity);
+            writeElements = Arrays.copyOf(writeElements, capacity);
+        }
+        writeX[writeCount] = x;
+        writeY[writeCount] = y;
+        writeElements[writeCount] = element;
+        writeCount++;
+    }
+
+    /**
+     * Records that the open intent killed the element.
+     */
+    public void kill(Element element) {
+        if (!open) {
+            throw new IllegalStateException("Element death outside of an element step while proposing moves");
+        }
+        if (killCount == killed.length) {
+            killed = Arrays.copyOf(killed, killCount * 2);
+        }
+        killed[killCount++] = element;
+    }
+
+    /**
+     * The element the open intent last wrote to x, y, or null if it did not write there.
+     */
+    public Element read(int x, int y) {
+        if (!open) {
+            return null;
+        }
+        for (int i = writeCount - 1; i >= firstWrite[intentCount]; i--) {
+            if (writeX[i] == x && writeY[i] == y) {
+                return writeElements[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The last write of the open intent before write end that put the element in a cell, or -1
+     * if there is none.
+     */
+    public int findWrite(Element element, int end) {
+        if (!open) {
+            return -1;
+        }
+        for (int i = end - 1; i >= firstWrite[intentCount]; i--) {
+            if (writeElements[i] == element) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Closes the open intent. Returns false, and drops the intent, if the step wrote nothing.
+     */
+    public boolean end() {
+        open = false;
+        if (writeCount == firstWrite[intentCount]) {
+            steppers[intentCount] = null;
+            killCount = firstKill[intentCount];
+            return false;
+        }
+        intentCount++;
+        firstWrite[intentCount] = writeCount;
+        firstKill[intentCount] = killCount;
+        return true;
+    }
+
+    public int size() {
+        return intentCount;
+    }
+
+    public long getKey(int intent) {
+        return keys[intent];
+    }
+
+    public Element getStepper(int intent) {
+        return steppers[intent];
+    }
+
+    public int getOriginX(int intent) {
+        return originX[intent];
+    }
+
+    public int getOriginY(int intent) {
+        return originY[intent];
+    }
+
+    public int getFirstWrite(int intent) {
+        return firstWrite[intent];
+    }
+
+    public int getEndWrite(int intent) {
+        return firstWrite[intent + 1];
+    }
+
+    public int getWriteCount() {
+        return writeCount;
+    }
+
+    public int getWriteX(int write) {
+        return writeX[write];
+    }
+
+    public int getWriteY(int write) {
+        return writeY[write];
+    }
+
+    public Element getWriteElement(int write) {
+        return writeElements[write];
+    }
+
+    public int getFirstKill(int intent) {
+        return firstKill[intent];
+    }
+
+    public int getEndKill(int intent) {
+        return firstKill[intent + 1];
+    }
+
+    public Element getKilled(int kill) {
+        return killed[kill];
+    }
+
+    public void clear() {
+        Arrays.fill(steppers, 0, intentCount, null);
+        Arrays.fill(writeElements, 0, writeCount, null);
+        Arrays.fill(killed, 0, killCount, null);
+        intentCount = 0;
+        writeCount = 0;
+        killCount = 0;
+        firstWrite[0] = 0;
+        firstKill[0] = 0;
+        open = false;
+    }
+}
@@ -0,0 +1,69 @@
+package com.gdx.cellular.util;
+
+import com.badlogic.gdx.graphics.Color;
+
+/**
+ * Helpers for colors packed as RGBA8888 ints, the format Pixmap uses and the format
+ * every cell stores. Only the renderer turns them back into float Colors.
+ */
+public class PackedColor {
+
+    private PackedColor() { throw new IllegalStateException("Should not instantiate PackedColor"); }
+
+    public static int rgba(float r, float g, float b, float a) {
+        return (channel(r) << 24) | (channel(g) << 16) | (channel(b) << 8) | channel(a);
+    }
+
+    public static int of(Color color) {
+        return rgba(color.r, color.g, color.b, color.a);
+    }
+
+    public static int r(int rgba) {
+        return (rgba >>> 24) & 0xff;
+    }
+
+    public static int g(int rgba) {
+        return (rgba >>> 16) & 0xff;
+    }
+
+    public static int b(int rgba) {
+        return (rgba >>> 8) & 0xff;
+    }
+
+    public static int a(int rgba) {
+        return rgba & 0xff;
+    }
+
+    /**
+     * Scales the color channels by factor and leaves alpha untouched.
+     */
+    public static int scale(int rgba, float factor) {
+        return (clamp((int) (r(rgba) * factor)) << 24)
+                | (clamp((int) (g(rgba) * factor)) << 16)
+                | (clamp((int) (b(rgba) * factor)) << 8)
+                | a(rgba);
+    }
+
+    /**
+     * Adds the float offsets (in 0-1 color space) to each channel, clamping the result.
+     */
+    public static int add(int rgba, float r, float g, float b, float a) {
+        return (clamp(r(rgba) + (int) (r * 255)) << 24)
+                | (clamp(g(rgba) + (int) (g * 255)) << 16)
+                | (clamp(b(rgba) + (int) (b * 255)) << 8)
+                | clamp(a(rgba) + (int) (a * 255));
+    }
+
+    public static Color toColor(Color out, int rgba) {
+        Color.rgba8888ToColor(out, rgba);
+        return out;
+    }
+
+    private static int channel(float value) {
+        return clamp((int) (value * 255));
+    }
+
+    private static int clamp(int value) {
+        return value < 0 ? 0 : (value > 255 ? 255 : value);
+    }
+}
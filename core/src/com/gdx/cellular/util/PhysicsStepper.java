@@ -0,0 +1,72 @@
+package com.gdx.cellular.util;
+
+import com.badlogic.gdx.physics.box2d.World;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Steps the Box2D world, optionally on a thread of its own while the elements step.
+ *
+ * Element stepping never touches the world: an owned element that dies only updates
+ * its PhysicsElementActor's element arrays. The world step in turn never reads the
+ * grid. The two only meet in CellularMatrix.stepPhysicsElementActors, which reads body
+ * transforms and may rebuild bodies, so finish must be called before it.
+ */
+public class PhysicsStepper {
+
+    private static final float TIME_STEP = 1/120f;
+    private static final int SUB_STEPS = 2;
+
+    private final World world;
+    private final ExecutorService executor;
+    private Future<?> pending;
+
+    public PhysicsStepper(World world) {
+        this.world = world;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "box2d");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts this frame's world step. With overlap off the step runs right here.
+     */
+    public void begin(boolean overlap) {
+        if (pending != null) {
+            throw new IllegalStateException("The previous world step was not finished");
+        }
+        if (overlap) {
+            pending = executor.submit(this::stepWorld);
+        } else {
+            stepWorld();
+        }
+    }
+
+    public void finish() {
+        if (pending == null) {
+            return;
+        }
+        try {
+            pending.get();
+        } catch (InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+        }
+        pending = null;
+    }
+
+    private void stepWorld() {
+        for (int i = 0; i < SUB_STEPS; i++) {
+            world.step(TIME_STEP, 10, 6);
+        }
+    }
+
+    public void shutdown() {
+        finish();
+        executor.shutdown();
+    }
+}
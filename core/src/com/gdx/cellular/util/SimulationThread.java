@@ -0,0 +1,118 @@
+package com.gdx.cellular.util;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Runs simulation ticks on their own thread so the render thread can draw the last
+ * finished tick while the next one is stepped.
+ *
+ * The render thread owns the tick boundary: it only starts a tick while none is
+ * running, and everything that touches the matrix from outside a tick (queued input,
+ * save/load, spouts) runs on the render thread just before startTick. Input events
+ * arrive at any time, so they are queued with submitInput and applied by
+ * runQueuedInput at that boundary.
+ */
+public class SimulationThread {
+
+    private final Runnable tick;
+    private final Thread thread;
+    private final Object lock = new Object();
+    private final ConcurrentLinkedQueue<Runnable> inputQueue = new ConcurrentLinkedQueue<>();
+    private boolean tickRequested = false;
+    private boolean running = true;
+    private volatile boolean busy = false;
+
+    public SimulationThread(Runnable tick) {
+        this.tick = tick;
+        this.thread = new Thread(this::run, "simulation");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    public boolean isBusy() {
+        return busy;
+    }
+
+    public void startTick() {
+        synchronized (lock) {
+            if (busy) {
+                throw new IllegalStateException("A tick is already running");
+            }
+            busy = true;
+            tickRequested = true;
+            lock.notifyAll();
+        }
+    }
+
+    public void awaitTick() {
+        synchronized (lock) {
+            while (busy) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    public void submitInput(Runnable input) {
+        inputQueue.add(input);
+    }
+
+    /**
+     * Applies the input queued since the last boundary. Must not run while a tick is running.
+     */
+    public void runQueuedInput() {
+        Runnable input;
+        while ((input = inputQueue.poll()) != null) {
+            try {
+                input.run();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void run() {
+        while (true) {
+            synchronized (lock) {
+                while (!tickRequested && running) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (!running) {
+                    return;
+                }
+                tickRequested = false;
+            }
+            try {
+                tick.run();
+            } catch (Exception e) {
+                e.printStackTrace();
+            } finally {
+                synchronized (lock) {
+                    busy = false;
+                    lock.notifyAll();
+                }
+            }
+        }
+    }
+
+    public void shutdown() {
+        awaitTick();
+        synchronized (lock) {
+            running = false;
+            lock.notifyAll();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.gdx.cellular.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Picks the stepper's thread count and checkerboard grain at runtime.
+ *
+ * Every tick's step is recorded, and once per window of ticks the tuner looks at the
+ * share of worker time spent idle. Mostly idle workers mean either tasks too small to
+ * be worth forking, tasks too coarse to balance, or more workers than there is work
+ * or cores for; saturated workers mean one more might help. At most one setting moves
+ * per window. The next window then decides whether the move stays: if stepping a chunk
+ * got more than a few percent slower it is undone and not tried again for a while. A
+ * move that stays blocks its own inverse for as long, which keeps the tuner from
+ * flapping between two neighbouring settings.
+ *
+ * record runs on the simulation thread. The overlay reads the status strings from the
+ * render thread, so they are volatile.
+ */
+public class StepAutotuner {
+
+    private static final int WINDOW = 60;
+    private static final double HIGH_IDLE = 0.4;
+    private static final double LOW_IDLE = 0.15;
+    private static final double WORSE = 1.05;
+    private static final int COOLDOWN_WINDOWS = 10;
+    private static final long MIN_TASK_NANOS = 40_000;
+    // Below this much stepping per window there is too little work to measure anything.
+    private static final long MIN_BUSY_NANOS = 2_000_000;
+    private static final int MAX_GRAIN = 16;
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
+
+    private enum Move {
+        THREADS_UP, THREADS_DOWN, GRAIN_UP, GRAIN_DOWN
+    }
+
+    private final int maxThreads;
+    private int threadCount;
+    private int grain = 1;
+
+    private int ticks;
+    private long stepNanos;
+    private long busyNanos;
+    private long capacityNanos;
+    private long taskCount;
+    private long chunkCount;
+    private final long[] passNanos = new long[5];
+    private int passCount;
+
+    private Move pendingMove;
+    private double costBeforeMove;
+    private Move blockedMove;
+    private int cooldown;
+
+    public volatile String metrics = "measuring";
+    public volatile String lastDecision = "";
+
+    public StepAutotuner(int threadCount, int maxThreads) {
+        this.maxThreads = Math.max(maxThreads, 1);
+        this.threadCount = Math.max(1, Math.min(threadCount, this.maxThreads));
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public int getGrain() {
+        return grain;
+    }
+
+    /**
+     * Adds the executor's last step to the current window and tunes when the window is full.
+     */
+    public void record(ElementStepExecutor executor, StepScheduler scheduler) {
+        long wall = 0;
+        for (int pass = 0; pass < executor.getPassCount(); pass++) {
+            wall += executor.getPassNanos(pass);
+            if (pass < passNanos.length) {
+                passNanos[pass] += executor.getPassNanos(pass);
+            }
+        }
+        passCount = Math.max(passCount, executor.getPassCount());
+        stepNanos += wall;
+        busyNanos += executor.getBusyNanos();
+        // Workers beyond the core count can not all be busy at once, so they do not add capacity.
+        capacityNanos += wall * Math.min(executor.getThreadCount(), CORES);
+        taskCount += executor.getTaskCount();
+        chunkCount += executor.getChunkCount();
+        if (++ticks < WINDOW) {
+            return;
+        }
+        tune(scheduler != StepScheduler.COLUMNS);
+        ticks = 0;
+        stepNanos = 0;
+        busyNanos = 0;
+        capacityNanos = 0;
+        taskCount = 0;
+        chunkCount = 0;
+        for (int pass = 0; pass < passNanos.length; pass++) {
+            passNanos[pass] = 0;
+        }
+        passCount = 0;
+    }
+
+    private void tune(boolean chunked) {
+        double step = stepNanos / (double) ticks;
+        double idle = capacityNanos == 0 ? 0 : 1 - busyNanos / (double) capacityNanos;
+        long taskNanos = taskCount == 0 ? 0 : busyNanos / taskCount;
+        // The amount of activity changes from window to window, so moves are judged by the cost per active chunk.
+        double cost = stepNanos / (double) Math.max(chunkCount, 1);
+        updateMetrics(step, idle, taskNanos);
+
+        if (pendingMove != null) {
+            Move move = pendingMove;
+            pendingMove = null;
+            String change = ": chunk cost " + micros(costBeforeMove) + " -> " + micros(cost) + " us";
+            if (cost > costBeforeMove * WORSE) {
+                apply(inverse(move));
+                blockedMove = move;
+                lastDecision = "back to " + setting() + change;
+            } else {
+                blockedMove = inverse(move);
+                lastDecision = "kept " + setting() + change;
+            }
+            cooldown = COOLDOWN_WINDOWS;
+            return;
+        }
+        if (cooldown > 0 && --cooldown == 0) {
+            blockedMove = null;
+        }
+        if (busyNanos < MIN_BUSY_NANOS) {
+            return;
+        }
+
+        // Candidates in order of preference; the first one that is allowed is tried.
+        List<Move> candidates = new ArrayList<>();
+        if (idle > HIGH_IDLE) {
+            if (chunked && taskNanos < MIN_TASK_NANOS && grain < MAX_GRAIN) {
+                candidates.add(Move.GRAIN_UP);
+            }
+            if (chunked && grain > 1) {
+                candidates.add(Move.GRAIN_DOWN);
+            }
+            if (threadCount > 1) {
+                candidates.add(Move.THREADS_DOWN);
+            }
+        } else if (idle < LOW_IDLE && threadCount < maxThreads) {
+            candidates.add(Move.THREADS_UP);
+        }
+        candidates.remove(blockedMove);
+        if (candidates.isEmpty()) {
+            return;
+        }
+        Move move = candidates.get(0);
+        String before = setting();
+        apply(move);
+        pendingMove = move;
+        costBeforeMove = cost;
+        lastDecision = "idle " + Math.round(idle * 100) + "%, trying " + before + " -> " + setting();
+    }
+
+    private void apply(Move move) {
+        switch (move) {
+            case THREADS_UP:
+                threadCount++;
+                break;
+            case THREADS_DOWN:
+                threadCount--;
+                break;
+            case GRAIN_UP:
+                grain *= 2;
+                break;
+            case GRAIN_DOWN:
+                grain /= 2;
+                break;
+        }
+    }
+
+    private static Move inverse(Move move) {
+        switch (move) {
+            case THREADS_UP:
+                return Move.THREADS_DOWN;
+            case THREADS_DOWN:
+                return Move.THREADS_UP;
+            case GRAIN_UP:
+                return Move.GRAIN_DOWN;
+            case GRAIN_DOWN:
+            default:
+                return Move.GRAIN_UP;
+        }
+    }
+
+    private String setting() {
+        return "threads " + threadCount + ", grain " + grain;
+    }
+
+    private void updateMetrics(double step, double idle, long taskNanos) {
+        StringBuilder builder = new StringBuilder("threads ").append(threadCount)
+                .append("  grain ").append(grain)
+                .append("  step ").append(millis(step)).append(" ms")
+                .append("  idle ").append(Math.round(idle * 100)).append('%')
+                .append("  task ").append(taskNanos / 1000).append(" us  passes");
+        for (int pass = 0; pass < passCount; pass++) {
+            builder.append(' ').append(millis(passNanos[pass] / (double) ticks));
+        }
+        metrics = builder.toString();
+    }
+
+    private static String millis(double nanos) {
+        return String.format("%.2f", nanos / 1e6);
+    }
+
+    private static String micros(double nanos) {
+        return String.format("%.1f", nanos / 1e3);
+    }
+}
@@ -0,0 +1,10 @@
+package com.gdx.cellular.util;
+
+public enum StepScheduler {
+    // Vertical column stripes all at once; elements that could reach the next stripe are stepped afterwards.
+    COLUMNS,
+    // Chunks in four checkerboard passes, so concurrently stepped chunks are never adjacent.
+    CHECKERBOARD,
+    // All active chunks at once against an unchanging grid, then their move intents are resolved in order.
+    INTENTS
+}
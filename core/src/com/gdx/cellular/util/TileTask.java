@@ -0,0 +1,38 @@
+package com.gdx.cellular.util;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs an action over a range of render tiles, split in half until at most grain tiles are
+ * left, the same way ChunkStepper splits chunks.
+ */
+public class TileTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    public interface TileRange {
+        void apply(int fromTile, int toTile);
+    }
+
+    public TileRange range;
+    public int from;
+    public int to;
+    public int grain;
+
+    public TileTask(TileRange range, int from, int to, int grain) {
+        this.range = range;
+        this.from = from;
+        this.to = to;
+        this.grain = grain;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= grain) {
+            range.apply(from, to);
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        invokeAll(new TileTask(range, from, middle, grain), new TileTask(range, middle, to, grain));
+    }
+}
@@ -22,7 +22,7 @@ public class WeatherSystem {
         }
         int numberToEmit = weight;
         for (int i = 0; i < numberToEmit; i++) {
-            int x = (int) (Math.random() * (matrix.innerArraySize - 1));
+            int x = (int) (WorldRandom.nextDouble() * (matrix.innerArraySize - 1));
             Element newElement = elementType.createElementByMatrix(x, matrix.outerArraySize - 1);
             newElement.vel = new Vector3(30, -256, 0);
             matrix.setElementAtIndex(x, matrix.outerArraySize - 1, newElement);
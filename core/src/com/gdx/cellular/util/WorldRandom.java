@@ -0,0 +1,98 @@
+package com.gdx.cellular.util;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Random numbers for everything the simulation does.
+ *
+ * Normally this is just ThreadLocalRandom. In deterministic mode each thread draws from
+ * the stream it last opened with beginStream. A draw is a hash of the world seed, the
+ * tick, the stream id and the number of draws made from the stream so far. Every chunk
+ * step opens a stream of its own and the serial parts of a tick open fixed ones, so a
+ * value never depends on which thread drew it or on what other threads drew first.
+ */
+public final class WorldRandom {
+
+    public static final long BOUNDARY_STREAM = -1;
+    public static final long TICK_STREAM = -2;
+    public static final long FAR_MOVER_STREAM = -3;
+
+    public static boolean deterministic = false;
+    public static long seed = 0;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final ThreadLocal<long[]> streams = ThreadLocal.withInitial(() -> new long[2]);
+
+    private WorldRandom() {
+    }
+
+    /**
+     * Makes the calling thread draw from the given stream of the given tick, starting at its first value.
+     */
+    public static void beginStream(int tick, long streamId) {
+        if (!deterministic) {
+            return;
+        }
+        long[] stream = streams.get();
+        stream[0] = mix(seed + mix(tick * GOLDEN_GAMMA + streamId));
+        stream[1] = 0;
+    }
+
+    public static double nextDouble() {
+        if (!deterministic) {
+            return ThreadLocalRandom.current().nextDouble();
+        }
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    public static float nextFloat() {
+        if (!deterministic) {
+            return ThreadLocalRandom.current().nextFloat();
+        }
+        return (nextLong() >>> 40) * 0x1.0p-24f;
+    }
+
+    public static boolean nextBoolean() {
+        if (!deterministic) {
+            return ThreadLocalRandom.current().nextBoolean();
+        }
+        return nextLong() < 0;
+    }
+
+    /**
+     * Uniform in [0, bound).
+     */
+    public static int nextInt(int bound) {
+        if (!deterministic) {
+            return ThreadLocalRandom.current().nextInt(bound);
+        }
+        return (int) (((nextLong() >>> 33) * bound) >>> 31);
+    }
+
+    /**
+     * Uniform in [origin, bound).
+     */
+    public static int nextInt(int origin, int bound) {
+        return origin + nextInt(bound - origin);
+    }
+
+    public static <T> void shuffle(List<T> list) {
+        for (int i = list.size() - 1; i > 0; i--) {
+            int j = nextInt(i + 1);
+            list.set(j, list.set(i, list.get(j)));
+        }
+    }
+
+    private static long nextLong() {
+        long[] stream = streams.get();
+        return mix(stream[0] + ++stream[1] * GOLDEN_GAMMA);
+    }
+
+    // SplitMix64 finalizer.
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
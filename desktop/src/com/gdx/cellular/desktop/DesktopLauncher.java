@@ -3,6 +3,7 @@ package com.gdx.cellular.desktop;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplication;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplicationConfiguration;
 import com.gdx.cellular.CellularAutomaton;
+import com.gdx.cellular.util.WorldRandom;
 
 public class DesktopLauncher {
 	public static void main (String[] arg) {
@@ -12,6 +13,11 @@ public class DesktopLauncher {
 //		config.backgroundFPS = 0;
 		config.width = 1280; // 480;
 		config.height = 800; //800;
+		if (arg.length > 0) {
+			// A world seed runs the simulation in deterministic mode.
+			WorldRandom.seed = Long.parseLong(arg[0]);
+			WorldRandom.deterministic = true;
+		}
 		new LwjglApplication(new CellularAutomaton(), config);
 	}
 }
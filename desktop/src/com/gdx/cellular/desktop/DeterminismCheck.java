@@ -0,0 +1,147 @@
+package com.gdx.cellular.desktop;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl.LwjglFiles;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.gdx.cellular.CellularAutomaton;
+import com.gdx.cellular.CellularMatrix;
+import com.gdx.cellular.elements.Element;
+import com.gdx.cellular.elements.ElementPool;
+import com.gdx.cellular.elements.ElementType;
+import com.gdx.cellular.util.ElementStepExecutor;
+import com.gdx.cellular.util.PhysicsStepper;
+import com.gdx.cellular.util.StepScheduler;
+import com.gdx.cellular.util.WorldRandom;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Runs a level in deterministic mode once per thread count and prints a hash of the
+ * resulting world. Every tick pours water and sand in at the top and every 30th tick
+ * sets off an explosion, all placed from the seeded boundary stream. The hashes must
+ * match; the exit code is 1 when they do not.
+ *
+ * The ticks follow CellularAutomaton: boundary work, the checkerboard passes alongside
+ * the Box2D step, then explosions, physics actors and pool recycling.
+ *
+ * Run from core/assets (gradle: desktop:checkDeterminism). Arguments: [level] [ticks] [seed] [thread counts...]
+ */
+public class DeterminismCheck {
+
+    public static void main(String[] args) throws IOException {
+        GdxNativesLoader.load();
+        Box2D.init();
+        Gdx.files = new LwjglFiles();
+        String level = args.length > 0 ? args[0] : "house";
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+        WorldRandom.seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        WorldRandom.deterministic = true;
+        int[] threadCounts = args.length > 3 ? new int[args.length - 3] : new int[] { 1, 2, 4, 8 };
+        for (int i = 3; i < args.length; i++) {
+            threadCounts[i - 3] = Integer.parseInt(args[i]);
+        }
+
+        Long expected = null;
+        boolean matches = true;
+        System.out.printf("%-8s %16s %10s%n", "threads", "world hash", "ms/tick");
+        for (int threads : threadCounts) {
+            long start = System.nanoTime();
+            long hash = run(level, ticks, threads);
+            double millis = (System.nanoTime() - start) / 1e6 / ticks;
+            System.out.printf("%-8d %016x %10.2f%n", threads, hash, millis);
+            if (expected == null) {
+                expected = hash;
+            } else if (hash != expected) {
+                matches = false;
+            }
+        }
+        System.out.println(matches ? "deterministic" : "MISMATCH");
+        if (!matches) {
+            System.exit(1);
+        }
+    }
+
+    private static long run(String level, int ticks, int threads) throws IOException {
+        CellularAutomaton.frameEpoch = 0;
+        WorldRandom.beginStream(0, WorldRandom.BOUNDARY_STREAM);
+        World world = new World(new Vector2(0, -100), true);
+        CellularMatrix matrix = new CellularMatrix(CellularAutomaton.screenWidth, CellularAutomaton.screenHeight,
+                CellularAutomaton.pixelSizeModifier, world, CellularAutomaton.gridBackend, CellularAutomaton.gridLayout);
+        loadLevel(matrix, level);
+        ElementStepExecutor executor = new ElementStepExecutor(matrix, threads);
+        PhysicsStepper physicsStepper = new PhysicsStepper(world);
+        try {
+            for (int tick = 0; tick < ticks; tick++) {
+                int epoch = ++CellularAutomaton.frameEpoch;
+                WorldRandom.beginStream(epoch, WorldRandom.BOUNDARY_STREAM);
+                for (int i = 0; i < 8; i++) {
+                    int x = WorldRandom.nextInt(matrix.innerArraySize);
+                    matrix.spawnElementByMatrix(x, matrix.outerArraySize - 2, i % 2 == 0 ? ElementType.WATER : ElementType.SAND);
+                }
+                if (tick % 30 == 0) {
+                    matrix.addExplosion(12, 8, WorldRandom.nextInt(matrix.innerArraySize), WorldRandom.nextInt(matrix.outerArraySize));
+                }
+                matrix.resetChunks();
+                matrix.applyWakeups();
+                matrix.updateActiveChunks();
+                matrix.reshuffleXIndexes();
+
+                physicsStepper.begin(CellularAutomaton.overlapPhysics);
+                executor.step(StepScheduler.CHECKERBOARD, epoch);
+                WorldRandom.beginStream(epoch, WorldRandom.TICK_STREAM);
+                matrix.executeExplosions();
+                physicsStepper.finish();
+                matrix.stepPhysicsElementActors();
+                ElementPool.recycleAll(matrix);
+            }
+            return hash(matrix);
+        } finally {
+            executor.shutdown();
+            physicsStepper.shutdown();
+            world.dispose();
+        }
+    }
+
+    private static void loadLevel(CellularMatrix matrix, String level) throws IOException {
+        String[] split = Files.readAllLines(Paths.get("save", level + ".ser"), StandardCharsets.UTF_8).get(0).split(",");
+        int row = 0;
+        int column = 0;
+        for (int i = 0; i + 1 < split.length && row < matrix.outerArraySize; i += 2) {
+            int count = Integer.parseInt(split[i]);
+            String clazz = split[i + 1].toUpperCase();
+            if (clazz.equals("|")) {
+                row++;
+                column = 0;
+                continue;
+            }
+            ElementType type = ElementType.valueOf(clazz);
+            for (int k = 0; k < count && column < matrix.innerArraySize; k++, column++) {
+                matrix.setElementAtIndex(column, row, type.createElementByMatrix(column, row));
+            }
+        }
+    }
+
+    private static long hash(CellularMatrix matrix) {
+        long hash = 1125899906842597L;
+        for (int y = 0; y < matrix.outerArraySize; y++) {
+            for (int x = 0; x < matrix.innerArraySize; x++) {
+                Element element = matrix.get(x, y);
+                hash = 31 * hash + element.elementType.ordinal();
+                hash = 31 * hash + element.color;
+                hash = 31 * hash + element.health;
+                hash = 31 * hash + element.temperature;
+                if (element.vel != null) {
+                    hash = 31 * hash + Float.floatToIntBits(element.vel.x);
+                    hash = 31 * hash + Float.floatToIntBits(element.vel.y);
+                }
+            }
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,289 @@
+package com.gdx.cellular.desktop;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl.LwjglFiles;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.gdx.cellular.elements.Element;
+import com.gdx.cellular.elements.ElementPool;
+import com.gdx.cellular.elements.ElementType;
+import com.gdx.cellular.grid.CellGrid;
+import com.gdx.cellular.grid.GridBackend;
+import com.gdx.cellular.grid.GridLayout;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Estimates how many heap bytes a cell costs, in the spirit of JOL's ClassLayout and GraphLayout.
+ * The sizes are computed by reflection against a 64-bit HotSpot layout with compressed oops:
+ * 12 byte object headers, 16 byte array headers, 4 byte references, and 8 byte alignment.
+ * Each class's own fields are packed largest first after its superclass's fields.
+ *
+ * For every ElementType it prints the element's shallow size and the objects it owns. Owned
+ * objects are everything reachable that two fresh instances do not share. It then prints the
+ * bytes per cell of each grid backend's own storage and the element bytes per cell of the levels
+ * in save/.
+ *
+ * Run from core/assets (gradle: desktop:elementFootprint). Arguments: [level names...]
+ */
+public class ElementFootprintReport {
+
+    private static final int OBJECT_HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final int ALIGNMENT = 8;
+
+    public static void main(String[] args) throws IOException {
+        // Element colors come from textures, so files and natives are needed but no window.
+        GdxNativesLoader.load();
+        Gdx.files = new LwjglFiles();
+        ElementPool.enabled = false;
+        printLayout(Element.class);
+
+        long[] bytesPerType = new long[ElementType.values().length];
+        System.out.printf("%n%-16s %8s %8s %8s  %s%n", "type", "shallow", "owned", "total", "owned objects");
+        for (ElementType type : ElementType.values()) {
+            Element first;
+            Element second;
+            try {
+                first = type.createElementByMatrix(0, 0);
+                second = type.createElementByMatrix(1, 0);
+            } catch (RuntimeException e) {
+                continue;
+            }
+            if (first == second) {
+                System.out.printf("%-16s %8s %8s %8d  shared instance%n", type, "-", "-", 0);
+                continue;
+            }
+            Set<Object> shared = Collections.newSetFromMap(new IdentityHashMap<>());
+            collectShared(first, second, shared, Collections.newSetFromMap(new IdentityHashMap<>()));
+            Map<Class<?>, Long> owned = new IdentityHashMap<>();
+            Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+            visited.add(first);
+            long ownedBytes = ownedSize(first, shared, visited, owned);
+            long shallow = instanceSize(first.getClass());
+            bytesPerType[type.ordinal()] = shallow + ownedBytes;
+            System.out.printf("%-16s %8d %8d %8d  %s%n", type, shallow, ownedBytes, shallow + ownedBytes, describe(owned));
+        }
+
+        int width = 256;
+        int height = 256;
+        System.out.printf("%n%-16s %16s%n", "grid backend", "heap bytes/cell");
+        for (GridBackend backend : new GridBackend[] { GridBackend.ELEMENT_ARRAY, GridBackend.PRIMITIVE_ARRAY, GridBackend.DIRECT_BUFFER }) {
+            CellGrid grid = backend.createGrid(width, height, GridLayout.ROW_MAJOR);
+            Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+            long bytes = gridSize(grid, visited);
+            System.out.printf("%-16s %16.2f%n", backend, bytes / (double) (width * height));
+        }
+
+        List<Path> levels = new ArrayList<>();
+        for (String arg : args) {
+            levels.add(Paths.get("save", arg + ".ser"));
+        }
+        if (levels.isEmpty()) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(Paths.get("save"), "*.ser")) {
+                stream.forEach(levels::add);
+            }
+        }
+        System.out.printf("%n%-16s %10s %18s%n", "level", "cells", "element bytes/cell");
+        for (Path level : levels) {
+            long[] counts = countTypes(level);
+            long cells = 0;
+            long bytes = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cells += counts[i];
+                bytes += counts[i] * bytesPerType[i];
+            }
+            System.out.printf("%-16s %10d %18.2f%n", level.getFileName(), cells, cells == 0 ? 0 : bytes / (double) cells);
+        }
+    }
+
+    private static void printLayout(Class<?> clazz) {
+        System.out.println(clazz.getName() + " object internals:");
+        System.out.printf(" %6s %5s %-28s %s%n", "offset", "size", "type", "field");
+        System.out.printf(" %6d %5d %-28s %s%n", 0, OBJECT_HEADER, "", "(object header)");
+        int offset = OBJECT_HEADER;
+        for (Class<?> current : hierarchy(clazz)) {
+            for (Field field : ownFields(current)) {
+                int size = fieldSize(field.getType());
+                offset = align(offset, size);
+                System.out.printf(" %6d %5d %-28s %s.%s%n", offset, size, field.getType().getSimpleName(), current.getSimpleName(), field.getName());
+                offset += size;
+            }
+            offset = align(offset, REFERENCE);
+        }
+        int size = align(offset, ALIGNMENT);
+        System.out.printf(" Instance size: %d bytes (%d bytes alignment loss)%n", size, size - offset);
+    }
+
+    private static long instanceSize(Class<?> clazz) {
+        int offset = OBJECT_HEADER;
+        for (Class<?> current : hierarchy(clazz)) {
+            for (Field field : ownFields(current)) {
+                int size = fieldSize(field.getType());
+                offset = align(offset, size) + size;
+            }
+            offset = align(offset, REFERENCE);
+        }
+        return align(offset, ALIGNMENT);
+    }
+
+    private static long shallowSize(Object object) {
+        Class<?> clazz = object.getClass();
+        if (clazz.isArray()) {
+            long length = Array.getLength(object);
+            return align(ARRAY_HEADER + length * fieldSize(clazz.getComponentType()), ALIGNMENT);
+        }
+        return instanceSize(clazz);
+    }
+
+    private static void collectShared(Object first, Object second, Set<Object> shared, Set<Object> visited) {
+        if (first == null || second == null || !visited.add(first)) {
+            return;
+        }
+        if (first == second) {
+            shared.add(first);
+            return;
+        }
+        if (first.getClass() != second.getClass() || first.getClass().isArray()) {
+            return;
+        }
+        for (Field field : referenceFields(first.getClass())) {
+            collectShared(read(field, first), read(field, second), shared, visited);
+        }
+    }
+
+    private static long ownedSize(Object object, Set<Object> shared, Set<Object> visited, Map<Class<?>, Long> owned) {
+        long total = 0;
+        for (Object child : children(object)) {
+            if (child == null || child instanceof Enum || child instanceof Class || shared.contains(child) || !visited.add(child)) {
+                continue;
+            }
+            long size = shallowSize(child);
+            owned.merge(child.getClass(), size, Long::sum);
+            total += size + ownedSize(child, shared, visited, owned);
+        }
+        return total;
+    }
+
+    private static long gridSize(Object object, Set<Object> visited) {
+        if (object == null || object instanceof Element || object instanceof Enum || object instanceof Class || !visited.add(object)) {
+            return 0;
+        }
+        long total = shallowSize(object);
+        for (Object child : children(object)) {
+            total += gridSize(child, visited);
+        }
+        return total;
+    }
+
+    private static List<Object> children(Object object) {
+        List<Object> children = new ArrayList<>();
+        Class<?> clazz = object.getClass();
+        if (clazz.isArray()) {
+            if (!clazz.getComponentType().isPrimitive()) {
+                for (int i = 0; i < Array.getLength(object); i++) {
+                    children.add(Array.get(object, i));
+                }
+            }
+            return children;
+        }
+        for (Field field : referenceFields(clazz)) {
+            children.add(read(field, object));
+        }
+        return children;
+    }
+
+    private static String describe(Map<Class<?>, Long> owned) {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<Class<?>, Long> entry : owned.entrySet()) {
+            if (builder.length() > 0) {
+                builder.append(", ");
+            }
+            builder.append(entry.getKey().getSimpleName()).append('=').append(entry.getValue());
+        }
+        return builder.toString();
+    }
+
+    private static long[] countTypes(Path level) throws IOException {
+        long[] counts = new long[ElementType.values().length];
+        String[] split = Files.readAllLines(level, StandardCharsets.UTF_8).get(0).split(",");
+        for (int i = 0; i + 1 < split.length; i += 2) {
+            String clazz = split[i + 1].toUpperCase();
+            if (!clazz.equals("|")) {
+                counts[ElementType.valueOf(clazz).ordinal()] += Integer.parseInt(split[i]);
+            }
+        }
+        return counts;
+    }
+
+    private static List<Class<?>> hierarchy(Class<?> clazz) {
+        List<Class<?>> classes = new ArrayList<>();
+        for (Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass()) {
+            classes.add(0, current);
+        }
+        return classes;
+    }
+
+    private static List<Field> ownFields(Class<?> clazz) {
+        List<Field> fields = new ArrayList<>();
+        for (Field field : clazz.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                fields.add(field);
+            }
+        }
+        fields.sort(Comparator.comparingInt((Field field) -> fieldSize(field.getType())).reversed());
+        return fields;
+    }
+
+    private static List<Field> referenceFields(Class<?> clazz) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> current : hierarchy(clazz)) {
+            for (Field field : ownFields(current)) {
+                if (!field.getType().isPrimitive()) {
+                    field.setAccessible(true);
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    private static Object read(Field field, Object object) {
+        try {
+            return field.get(object);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot read " + field, e);
+        }
+    }
+
+    private static int fieldSize(Class<?> type) {
+        if (type == long.class || type == double.class) return 8;
+        if (type == int.class || type == float.class) return 4;
+        if (type == short.class || type == char.class) return 2;
+        if (type == byte.class || type == boolean.class) return 1;
+        return REFERENCE;
+    }
+
+    private static int align(int value, int alignment) {
+        return (value + alignment - 1) / alignment * alignment;
+    }
+
+    private static long align(long value, int alignment) {
+        return (value + alignment - 1) / alignment * alignment;
+    }
+}
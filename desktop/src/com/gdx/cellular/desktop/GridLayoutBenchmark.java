@@ -0,0 +1,186 @@
+package com.gdx.cellular.desktop;
+
+import com.gdx.cellular.elements.ElementType;
+import com.gdx.cellular.grid.CellIndex;
+import com.gdx.cellular.grid.GridLayout;
+import com.gdx.cellular.util.Chunk;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares cell grid layouts on the levels in save/. Each level is tiled to scale x scale
+ * copies, then two kernels run over a byte grid of element type ordinals: a chunk ordered
+ * falling step that reads the neighbours of every cell, and a full row scan like the one
+ * the renderer does. Every layout runs the same steps, so the checksums must match.
+ * The byte grid is the benchmark's own, not CellularMatrix's, whose stepping does not use a
+ * layout yet (see GridLayout).
+ *
+ * Run from core/assets (gradle: desktop:benchmarkGridLayout). Arguments: [scale] [layouts and level names...]
+ * The index call sites are shared between layouts, so for numbers that are not skewed by
+ * earlier layouts' JIT profiles pass a single layout per run.
+ */
+public class GridLayoutBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int ITERATIONS = 100;
+    private static final byte EMPTY = (byte) ElementType.EMPTYCELL.ordinal();
+
+    private static final boolean[] FALLS = new boolean[ElementType.values().length];
+    static {
+        for (ElementType type : ElementType.values()) {
+            FALLS[type.ordinal()] = type.classType == ElementType.ClassType.MOVABLESOLID || type.classType == ElementType.ClassType.LIQUID;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int scale = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+        List<Path> levels = new ArrayList<>();
+        List<GridLayout> layouts = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            if (isLayout(args[i])) {
+                layouts.add(GridLayout.valueOf(args[i]));
+            } else {
+                levels.add(Paths.get("save", args[i] + ".ser"));
+            }
+        }
+        if (layouts.isEmpty()) {
+            layouts.addAll(Arrays.asList(GridLayout.values()));
+        }
+        if (levels.isEmpty()) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(Paths.get("save"), "*.ser")) {
+                stream.forEach(levels::add);
+            }
+        }
+        System.out.printf("%-12s %-10s %10s %12s %12s %12s%n", "level", "layout", "cells", "step ns/cell", "scan ns/cell", "checksum");
+        for (Path level : levels) {
+            byte[][] rows = readLevel(level);
+            int width = rows[0].length * scale;
+            int height = rows.length * scale;
+            for (GridLayout layout : layouts) {
+                CellIndex cellIndex = layout.createIndex(width, height);
+                byte[] cells = new byte[cellIndex.capacity()];
+                for (int y = 0; y < height; y++) {
+                    byte[] row = rows[y % rows.length];
+                    for (int x = 0; x < width; x++) {
+                        cells[cellIndex.index(x, y)] = row[x % row.length];
+                    }
+                }
+                long checksum = 0;
+                for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                    checksum += step(cells, cellIndex, width, height);
+                    checksum += scan(cells, cellIndex, width, height);
+                }
+                long stepTime = 0;
+                long scanTime = 0;
+                for (int i = 0; i < ITERATIONS; i++) {
+                    long start = System.nanoTime();
+                    checksum += step(cells, cellIndex, width, height);
+                    long middle = System.nanoTime();
+                    checksum += scan(cells, cellIndex, width, height);
+                    scanTime += System.nanoTime() - middle;
+                    stepTime += middle - start;
+                }
+                double cellCount = (double) width * height * ITERATIONS;
+                System.out.printf("%-12s %-10s %10d %12.2f %12.2f %12d%n", level.getFileName(), layout, width * height,
+                        stepTime / cellCount, scanTime / cellCount, checksum);
+            }
+        }
+    }
+
+    private static boolean isLayout(String arg) {
+        for (GridLayout layout : GridLayout.values()) {
+            if (layout.name().equals(arg)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[][] readLevel(Path level) throws IOException {
+        String[] split = Files.readAllLines(level, StandardCharsets.UTF_8).get(0).split(",");
+        List<List<Byte>> rows = new ArrayList<>();
+        List<Byte> row = new ArrayList<>();
+        int width = 0;
+        for (int i = 0; i + 1 < split.length; i += 2) {
+            int count = Integer.parseInt(split[i]);
+            String clazz = split[i + 1].toUpperCase();
+            if (clazz.equals("|")) {
+                width = Math.max(width, row.size());
+                rows.add(row);
+                row = new ArrayList<>();
+                continue;
+            }
+            byte type = (byte) ElementType.valueOf(clazz).ordinal();
+            for (int k = 0; k < count; k++) {
+                row.add(type);
+            }
+        }
+        byte[][] result = new byte[rows.size()][width];
+        for (int y = 0; y < rows.size(); y++) {
+            List<Byte> source = rows.get(y);
+            for (int x = 0; x < source.size(); x++) {
+                result[y][x] = source.get(x);
+            }
+        }
+        return result;
+    }
+
+    private static long step(byte[] cells, CellIndex cellIndex, int width, int height) {
+        long neighbours = 0;
+        for (int chunkY = 0; chunkY < height; chunkY += Chunk.size) {
+            for (int chunkX = 0; chunkX < width; chunkX += Chunk.size) {
+                int maxY = Math.min(chunkY + Chunk.size, height);
+                int maxX = Math.min(chunkX + Chunk.size, width);
+                for (int y = chunkY; y < maxY; y++) {
+                    for (int x = chunkX; x < maxX; x++) {
+                        int index = cellIndex.index(x, y);
+                        byte type = cells[index];
+                        if (x > 0 && cells[cellIndex.index(x - 1, y)] == type) neighbours++;
+                        if (x < width - 1 && cells[cellIndex.index(x + 1, y)] == type) neighbours++;
+                        if (y < height - 1 && cells[cellIndex.index(x, y + 1)] == type) neighbours++;
+                        if (y == 0 || !FALLS[type]) continue;
+                        int below = cellIndex.index(x, y - 1);
+                        if (cells[below] == EMPTY) {
+                            cells[below] = type;
+                            cells[index] = EMPTY;
+                            continue;
+                        }
+                        int side = (x + y) % 2 == 0 ? -1 : 1;
+                        int diagonalX = x + side;
+                        if (diagonalX >= 0 && diagonalX < width) {
+                            int diagonal = cellIndex.index(diagonalX, y - 1);
+                            if (cells[diagonal] == EMPTY) {
+                                cells[diagonal] = type;
+                                cells[index] = EMPTY;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return neighbours;
+    }
+
+    private static long scan(byte[] cells, CellIndex cellIndex, int width, int height) {
+        long runs = 0;
+        for (int y = 0; y < height; y++) {
+            byte last = -1;
+            for (int x = 0; x < width; x++) {
+                byte type = cells[cellIndex.index(x, y)];
+                if (type != last) {
+                    runs++;
+                    last = type;
+                }
+            }
+        }
+        return runs;
+    }
+}
@@ -0,0 +1,122 @@
+package com.gdx.cellular.desktop;
+
+import com.gdx.cellular.CellularAutomaton;
+import com.gdx.cellular.grid.CellMipmap;
+import com.gdx.cellular.grid.CellRasterizer;
+import com.gdx.cellular.util.Chunk;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Checks CellMipmap without a window, on a world of the default size, 213 x 133 cells, whose
+ * levels do not halve evenly. Each round repaints the cells of a few random tiles, rasterizes
+ * them the way MatrixActor does and updates the mipmap from the dirty tiles only. Every level
+ * must then match both a mipmap rebuilt from scratch and a plain downsample of the whole level
+ * above it, which knows nothing of tiles.
+ *
+ * The exit code is 1 when any level differs.
+ *
+ * Run from anywhere (gradle: desktop:checkMipmap). Arguments: [width] [height] [rounds] [seed]
+ */
+public class MipmapCheck {
+
+    public static void main(String[] args) {
+        int width = args.length > 0 ? Integer.parseInt(args[0]) : CellularAutomaton.screenWidth / CellularAutomaton.pixelSizeModifier;
+        int height = args.length > 1 ? Integer.parseInt(args[1]) : CellularAutomaton.screenHeight / CellularAutomaton.pixelSizeModifier;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        Random random = new Random(args.length > 3 ? Long.parseLong(args[3]) : 1);
+
+        CellRasterizer rasterizer = new CellRasterizer(width, height, Chunk.size);
+        int[] colors = new int[width * height];
+        int[] tileStamps = new int[rasterizer.getTileCount()];
+        for (int i = 0; i < colors.length; i++) {
+            colors[i] = random.nextInt();
+        }
+        rasterizer.collectDirtyTiles(tileStamps, 0);
+        rasterizer.rasterize(colors);
+        CellMipmap mipmap = new CellMipmap(rasterizer);
+        mipmap.rebuild(rasterizer);
+
+        System.out.printf("%dx%d cells, levels", width, height);
+        for (int level = 1; level <= CellMipmap.LEVELS; level++) {
+            System.out.printf(" %dx%d", mipmap.getWidth(level), mipmap.getHeight(level));
+        }
+        System.out.println();
+
+        int mismatches = 0;
+        for (int round = 1; round <= rounds; round++) {
+            int changedTiles = 1 + random.nextInt(4);
+            for (int i = 0; i < changedTiles; i++) {
+                int tile = random.nextInt(tileStamps.length);
+                tileStamps[tile] = round;
+                repaintTile(rasterizer, colors, tile, random);
+            }
+            rasterizer.collectDirtyTiles(tileStamps, round);
+            rasterizer.rasterize(colors);
+            mipmap.update(rasterizer);
+
+            CellMipmap rebuilt = new CellMipmap(rasterizer);
+            rebuilt.rebuild(rasterizer);
+            int[] finer = rasterizer.getPixels();
+            int finerWidth = width;
+            int finerHeight = height;
+            for (int level = 1; level <= CellMipmap.LEVELS; level++) {
+                int[] downsampled = downsample(finer, finerWidth, finerHeight);
+                boolean matchesRebuild = Arrays.equals(mipmap.getPixels(level), rebuilt.getPixels(level));
+                boolean matchesDownsample = Arrays.equals(mipmap.getPixels(level), downsampled);
+                if (!matchesRebuild || !matchesDownsample) {
+                    mismatches++;
+                    System.out.printf("round %d level %d differs from the %s%n", round, level, matchesRebuild ? "downsample" : "rebuild");
+                }
+                finer = downsampled;
+                finerWidth = (finerWidth + 1) / 2;
+                finerHeight = (finerHeight + 1) / 2;
+            }
+        }
+        System.out.println(mismatches == 0 ? rounds + " rounds, every level up to date" : "MIPMAP MISMATCH");
+        if (mismatches > 0) {
+            System.exit(1);
+        }
+    }
+
+    // Colors are bottom row first, as a CellSnapshot publishes them.
+    private static void repaintTile(CellRasterizer rasterizer, int[] colors, int tile, Random random) {
+        int minX = (tile % rasterizer.getTileColumns()) * Chunk.size;
+        int minY = (tile / rasterizer.getTileColumns()) * Chunk.size;
+        for (int y = minY; y < Math.min(minY + Chunk.size, rasterizer.getHeight()); y++) {
+            for (int x = minX; x < Math.min(minX + Chunk.size, rasterizer.getWidth()); x++) {
+                colors[y * rasterizer.getWidth() + x] = random.nextInt();
+            }
+        }
+    }
+
+    // Halves a top-row-first level, averaging each channel over the up to four texels under a texel.
+    private static int[] downsample(int[] pixels, int width, int height) {
+        int halfWidth = (width + 1) / 2;
+        int halfHeight = (height + 1) / 2;
+        int[] half = new int[halfWidth * halfHeight];
+        for (int y = 0; y < halfHeight; y++) {
+            for (int x = 0; x < halfWidth; x++) {
+                long[] sums = new long[4];
+                int count = 0;
+                // Matrix rows count up from the bottom, pixel rows down from the top.
+                for (int sy = y * 2; sy < Math.min(y * 2 + 2, height); sy++) {
+                    for (int sx = x * 2; sx < Math.min(x * 2 + 2, width); sx++) {
+                        int color = pixels[(height - 1 - sy) * width + sx];
+                        for (int channel = 0; channel < 4; channel++) {
+                            sums[channel] += (color >>> (24 - channel * 8)) & 0xff;
+                        }
+                        count++;
+                    }
+                }
+                int color = 0;
+                for (int channel = 0; channel < 4; channel++) {
+                    color |= (int) (sums[channel] / count) << (24 - channel * 8);
+                }
+                half[(halfHeight - 1 - y) * halfWidth + x] = color;
+            }
+        }
+        return half;
+    }
+}
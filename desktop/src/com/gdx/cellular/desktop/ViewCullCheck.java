@@ -0,0 +1,160 @@
+package com.gdx.cellular.desktop;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl.LwjglFiles;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.gdx.cellular.CellularAutomaton;
+import com.gdx.cellular.CellularMatrix;
+import com.gdx.cellular.elements.Element;
+import com.gdx.cellular.elements.ElementPool;
+import com.gdx.cellular.elements.ElementType;
+import com.gdx.cellular.elements.EmptyCell;
+import com.gdx.cellular.util.Chunk;
+import com.gdx.cellular.util.ElementStepExecutor;
+import com.gdx.cellular.util.StepScheduler;
+import com.gdx.cellular.util.WorldRandom;
+
+/**
+ * Checks camera culling without a window. Every chunk gets a stone floor along its bottom row
+ * and a grain of sand dropped in at its top every tick, so every chunk always has work. The
+ * view is the bottom left chunk with no margin, and each tick checks which chunks
+ * updateActiveChunks picked:
+ *
+ * - the chunk in view is stepped every tick;
+ * - any other chunk is stepped only on its turn, every outsideViewStepInterval ticks, or never
+ *   when that is 0;
+ * - a chunk passed over keeps its dirty rectangle for next tick;
+ * - the cells of a chunk passed over, away from the view, are the same after the tick;
+ * - once the view covers the whole world, every chunk is stepped the next tick.
+ *
+ * The exit code is 1 when any check fails.
+ *
+ * Run from core/assets (gradle: desktop:checkViewCulling). Arguments: [ticks] [step intervals...]
+ */
+public class ViewCullCheck {
+
+    public static void main(String[] args) {
+        GdxNativesLoader.load();
+        Box2D.init();
+        Gdx.files = new LwjglFiles();
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 24;
+        int[] intervals = args.length > 1 ? new int[args.length - 1] : new int[] { 4, 0 };
+        for (int i = 1; i < args.length; i++) {
+            intervals[i - 1] = Integer.parseInt(args[i]);
+        }
+
+        boolean passed = true;
+        System.out.printf("%-10s %10s %10s%n", "interval", "checks", "failures");
+        for (int interval : intervals) {
+            int[] counts = run(interval, ticks);
+            System.out.printf("%-10d %10d %10d%n", interval, counts[0], counts[1]);
+            passed &= counts[1] == 0;
+        }
+        System.out.println(passed ? "culled as expected" : "CULLING MISMATCH");
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    // Returns the number of checks made and how many failed.
+    private static int[] run(int interval, int ticks) {
+        CellularAutomaton.frameEpoch = 0;
+        WorldRandom.beginStream(0, WorldRandom.BOUNDARY_STREAM);
+        World world = new World(new Vector2(0, -100), true);
+        CellularMatrix matrix = new CellularMatrix(CellularAutomaton.screenWidth, CellularAutomaton.screenHeight,
+                CellularAutomaton.pixelSizeModifier, world, CellularAutomaton.gridBackend, CellularAutomaton.gridLayout);
+        for (int y = 0; y < matrix.outerArraySize; y += Chunk.size) {
+            for (int x = 0; x < matrix.innerArraySize; x++) {
+                matrix.spawnElementByMatrix(x, y, ElementType.STONE);
+            }
+        }
+        matrix.cullToView = true;
+        matrix.viewMarginChunks = 0;
+        matrix.outsideViewStepInterval = interval;
+        matrix.setView(0, 0, Chunk.size - 1, Chunk.size - 1);
+        ElementStepExecutor executor = new ElementStepExecutor(matrix, 2);
+        Element[] before = new Element[matrix.innerArraySize * matrix.outerArraySize];
+        int checks = 0;
+        int failures = 0;
+        try {
+            for (int tick = 0; tick <= ticks; tick++) {
+                boolean wholeWorld = tick == ticks;
+                if (wholeWorld) {
+                    matrix.setView(0, 0, matrix.innerArraySize - 1, matrix.outerArraySize - 1);
+                }
+                int epoch = ++CellularAutomaton.frameEpoch;
+                WorldRandom.beginStream(epoch, WorldRandom.BOUNDARY_STREAM);
+                dropSand(matrix);
+                matrix.resetChunks();
+                matrix.applyWakeups();
+                matrix.updateActiveChunks();
+                matrix.reshuffleXIndexes();
+                for (int y = 0; y < matrix.outerArraySize; y++) {
+                    for (int x = 0; x < matrix.innerArraySize; x++) {
+                        before[y * matrix.innerArraySize + x] = matrix.get(x, y);
+                    }
+                }
+
+                executor.step(StepScheduler.CHECKERBOARD, epoch);
+                ElementPool.recycleAll(matrix);
+
+                for (int y = 0; y < matrix.outerArraySize; y += Chunk.size) {
+                    for (int x = 0; x < matrix.innerArraySize; x += Chunk.size) {
+                        Chunk chunk = matrix.getChunkForCoordinates(x, y);
+                        boolean inView = wholeWorld || (chunk.getMinX() == 0 && chunk.getMinY() == 0);
+                        boolean due = interval > 0 && (epoch + chunk.getId()) % interval == 0;
+                        String failure = null;
+                        if ((inView || due) != chunk.isActive()) {
+                            failure = chunk.isActive() ? "stepped out of turn" : "not stepped";
+                        } else if (!chunk.isActive() && chunk.getShouldStep() && !chunk.getShouldStepNextFrame()) {
+                            failure = "lost its dirty rectangle";
+                        } else if (!chunk.isActive() && !isNextToView(chunk) && !isUnchanged(matrix, chunk, before)) {
+                            failure = "changed while passed over";
+                        }
+                        checks++;
+                        if (failure != null) {
+                            failures++;
+                            System.out.printf("tick %d: chunk %d at %d,%d %s%n", tick, chunk.getId(), chunk.getMinX(), chunk.getMinY(), failure);
+                        }
+                    }
+                }
+            }
+            return new int[] { checks, failures };
+        } finally {
+            executor.shutdown();
+            world.dispose();
+        }
+    }
+
+    private static void dropSand(CellularMatrix matrix) {
+        for (int y = 0; y < matrix.outerArraySize; y += Chunk.size) {
+            for (int x = 0; x < matrix.innerArraySize; x += Chunk.size) {
+                Chunk chunk = matrix.getChunkForCoordinates(x, y);
+                int dropX = (chunk.getMinX() + chunk.getMaxX()) / 2;
+                int dropY = Math.min(chunk.getMaxY(), matrix.outerArraySize - 1);
+                if (matrix.get(dropX, dropY) instanceof EmptyCell) {
+                    matrix.spawnElementByMatrix(dropX, dropY, ElementType.SAND);
+                }
+            }
+        }
+    }
+
+    // Elements of the chunk in view may move into the chunks around it.
+    private static boolean isNextToView(Chunk chunk) {
+        return chunk.getMinX() <= Chunk.size && chunk.getMinY() <= Chunk.size;
+    }
+
+    private static boolean isUnchanged(CellularMatrix matrix, Chunk chunk, Element[] before) {
+        for (int y = chunk.getMinY(); y <= Math.min(chunk.getMaxY(), matrix.outerArraySize - 1); y++) {
+            for (int x = chunk.getMinX(); x <= Math.min(chunk.getMaxX(), matrix.innerArraySize - 1); x++) {
+                if (matrix.get(x, y) != before[y * matrix.innerArraySize + x]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}